@@ -1,4 +1,7 @@
 import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
 
 /**
  * Abstract base class for all video transitions
@@ -7,6 +10,15 @@ public abstract class BaseTransition {
     protected int width;
     protected int height;
     protected int transitionFrames;
+    protected FramePool framePool = FramePool.getShared();
+    
+    // Pixel layout of the frames rendered; a single plane of a planar YUV frame uses CV_8UC1
+    protected int frameType = CV_8UC3;
+    protected double blackLevel = 0;
+    
+    // Transition whose allocating applyTransition is being adapted on this thread, to catch subclasses
+    // that override neither variant before the two defaults recurse forever
+    private static final ThreadLocal<BaseTransition> ADAPTING = new ThreadLocal<>();
     
     public BaseTransition(int width, int height, int transitionFrames) {
         this.width = width;
@@ -19,9 +31,93 @@ public abstract class BaseTransition {
      * @param frame1 First frame (outgoing)
      * @param frame2 Second frame (incoming)
      * @param progress Transition progress (0.0 to 1.0)
-     * @return Resulting frame with transition applied
+     * @return Resulting frame with transition applied, a new buffer owned by the caller
+     */
+    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+        Mat result = acquireFrame();
+        applyTransition(frame1, frame2, progress, result);
+        return result;
+    }
+    
+    /**
+     * Apply transition effect between two frames, rendering into an existing buffer.
+     * Subclasses override at least one of the two applyTransition methods; the built-in
+     * transitions implement this one, and the default here adapts subclasses that only
+     * implement the allocating variant. A subclass that overrides neither fails with an
+     * IllegalStateException on its first frame.
+     * @param frame1 First frame (outgoing)
+     * @param frame2 Second frame (incoming)
+     * @param progress Transition progress (0.0 to 1.0)
+     * @param destination Output buffer, reallocated if it is not already the frame size.
+     *                    Must not be frame1 or frame2.
+     */
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
+        BaseTransition adapting = ADAPTING.get();
+        if (adapting == this) {
+            throw new IllegalStateException(getClass().getName() + " must override applyTransition(Mat, Mat, double, Mat)"
+                                            + " or applyTransition(Mat, Mat, double)");
+        }
+        Mat result;
+        ADAPTING.set(this);
+        try {
+            result = applyTransition(frame1, frame2, progress);
+        } finally {
+            ADAPTING.set(adapting);
+        }
+        result.copyTo(destination);
+        if (result != frame1 && result != frame2) {
+            recycle(result);
+        }
+    }
+    
+    /**
+     * Use the given pool for output and scratch buffers
+     */
+    public void setFramePool(FramePool framePool) {
+        this.framePool = framePool;
+    }
+    
+    /**
+     * Render single-channel image planes instead of BGR frames
+     * @param blackLevel Sample value of black in the plane (e.g. 16 for luma, 128 for chroma)
      */
-    public abstract Mat applyTransition(Mat frame1, Mat frame2, double progress);
+    public void setPlaneFormat(double blackLevel) {
+        this.frameType = CV_8UC1;
+        this.blackLevel = blackLevel;
+    }
+    
+    /**
+     * Borrow an output-sized buffer from the frame pool; contents are undefined
+     */
+    protected Mat acquireFrame() {
+        return framePool.acquire(height, width, frameType);
+    }
+    
+    /**
+     * Borrow an output-sized buffer from the frame pool, cleared to black
+     */
+    protected Mat acquireBlankFrame() {
+        Mat frame = acquireFrame();
+        frame.put(new Scalar(blackLevel, blackLevel, blackLevel, 0));
+        return frame;
+    }
+    
+    /**
+     * Make destination an output-sized frame and clear it to black
+     */
+    protected void clearFrame(Mat destination) {
+        destination.create(height, width, frameType);
+        destination.put(new Scalar(blackLevel, blackLevel, blackLevel, 0));
+    }
+    
+    /**
+     * Hand scratch buffers back to the frame pool
+     */
+    protected void recycle(Mat... buffers) {
+        for (Mat buffer : buffers) {
+            framePool.recycle(buffer);
+        }
+    }
     
     /**
      * Get the total number of frames for this transition
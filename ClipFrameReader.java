@@ -0,0 +1,206 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.opencv.opencv_core.*;
+import static org.bytedeco.ffmpeg.global.avutil.*;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequential frame reader for a single input clip.
+ * Decodes frames on demand, with the decoder's swscale step producing BGR (or planar I420) frames at the
+ * output dimensions directly, so callers only hold the frames they actually need.
+ * In points and tail reads seek to the nearest keyframe and decode forward from there.
+ */
+public class ClipFrameReader implements FrameSource {
+    private final String videoPath;
+    private final int outputWidth;
+    private final int outputHeight;
+    private final FFmpegFrameGrabber grabber;
+    private final boolean yuv420;
+    private int framesRead = 0;
+    private boolean finished = false;
+    private long outPoint = ClipRange.END;
+    private FramePool framePool = null;
+
+    public ClipFrameReader(String videoPath, int outputWidth, int outputHeight) throws Exception {
+        this(videoPath, outputWidth, outputHeight, null);
+    }
+
+    /**
+     * Open a clip restricted to the given in/out points (null for the whole clip)
+     */
+    public ClipFrameReader(String videoPath, int outputWidth, int outputHeight, ClipRange range) throws Exception {
+        this(videoPath, outputWidth, outputHeight, range, ScalingQuality.BILINEAR);
+    }
+
+    /**
+     * Open a clip restricted to the given in/out points, scaling with the given algorithm
+     */
+    public ClipFrameReader(String videoPath, int outputWidth, int outputHeight, ClipRange range,
+                           ScalingQuality quality) throws Exception {
+        this(videoPath, outputWidth, outputHeight, range, quality, false);
+    }
+
+    /**
+     * Open a clip, decoding either to BGR or to planar I420 frames (see Yuv420Frames)
+     */
+    public ClipFrameReader(String videoPath, int outputWidth, int outputHeight, ClipRange range,
+                           ScalingQuality quality, boolean yuv420) throws Exception {
+        this.videoPath = videoPath;
+        this.outputWidth = outputWidth;
+        this.outputHeight = outputHeight;
+        this.yuv420 = yuv420;
+        this.grabber = new FFmpegFrameGrabber(videoPath);
+        configureScaling(grabber, outputWidth, outputHeight, quality);
+        if (yuv420) {
+            grabber.setPixelFormat(AV_PIX_FMT_YUV420P);
+        }
+        this.grabber.start();
+
+        if (range != null) {
+            long length = grabber.getLengthInTime();
+            long inPoint = range.resolveInPoint(length);
+            if (inPoint > 0) {
+                grabber.setTimestamp(inPoint);
+            }
+            outPoint = range.getOutPoint();
+        }
+    }
+
+    /**
+     * Ask the grabber to scale and convert to BGR during decoding. Must be called before start().
+     */
+    static void configureScaling(FFmpegFrameGrabber grabber, int width, int height, ScalingQuality quality) {
+        grabber.setImageWidth(width);
+        grabber.setImageHeight(height);
+        grabber.setPixelFormat(AV_PIX_FMT_BGR24);
+        grabber.setImageScalingFlags(quality.getSwsFlags());
+    }
+
+    /**
+     * Decode the next valid frame at the output dimensions
+     * @return The next frame, or null when the clip is exhausted
+     */
+    @Override
+    public Mat nextFrame() throws Exception {
+        if (framePool == null) {
+            return nextFrame(null);
+        }
+        Mat buffer = yuv420 ? framePool.acquire(Yuv420Frames.rows(outputHeight), outputWidth, CV_8UC1)
+                            : framePool.acquire(outputHeight, outputWidth, CV_8UC3);
+        Mat frame = nextFrame(buffer);
+        if (frame == null) {
+            framePool.recycle(buffer);
+        }
+        return frame;
+    }
+
+    /**
+     * Decode into buffers borrowed from the given pool instead of allocating new ones
+     */
+    public void setFramePool(FramePool framePool) {
+        this.framePool = framePool;
+    }
+
+    /**
+     * Decode the next valid frame into a reusable destination buffer
+     * @param destination Buffer to copy into, or null to allocate a new one
+     * @return The decoded frame (destination when supplied), or null when the clip is exhausted
+     */
+    public Mat nextFrame(Mat destination) throws Exception {
+        if (finished) {
+            return null;
+        }
+
+        Frame frame;
+        while ((frame = grabber.grabFrame()) != null) {
+            if (frame.image != null) {
+                if (outPoint != ClipRange.END && frame.timestamp >= outPoint) {
+                    break;
+                }
+                // The converted Mat wraps the grabber's buffer, which the next grab overwrites
+                if (yuv420) {
+                    framesRead++;
+                    return Yuv420Frames.copyToSize(Yuv420Frames.wrap(frame), frame.imageWidth, frame.imageHeight,
+                                                   destination, outputWidth, outputHeight);
+                }
+                Mat mat = FrameBridge.toMat(frame);
+                if (mat != null && !mat.empty()) {
+                    framesRead++;
+                    return VideoProcessor.copyToSize(mat, destination, outputWidth, outputHeight);
+                }
+            }
+        }
+
+        finished = true;
+        return null;
+    }
+
+    /**
+     * Seek so that the next frame returned is the one at the given timestamp
+     * @param timestampMicros Position in microseconds from the start of the clip
+     */
+    public void seekToTimestamp(long timestampMicros) throws Exception {
+        grabber.setTimestamp(timestampMicros);
+        finished = false;
+    }
+
+    /**
+     * Decode only the last count frames of the clip (up to its out point). Seeks close to the end
+     * first, so the cost does not depend on the clip length.
+     */
+    public List<Mat> readTail(int count) throws Exception {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        double fps = grabber.getFrameRate() > 0 ? grabber.getFrameRate() : 30.0;
+        long end = grabber.getLengthInTime();
+        if (outPoint != ClipRange.END && outPoint < end) {
+            end = outPoint;
+        }
+        // A few frames of slack covers rounding in the container's duration
+        long seekBack = (long) ((count + 5) * 1000000.0 / fps);
+        if (end > seekBack) {
+            seekToTimestamp(end - seekBack);
+        }
+
+        ArrayDeque<Mat> tail = new ArrayDeque<>(count + 1);
+        Mat frame;
+        while ((frame = nextFrame()) != null) {
+            tail.addLast(frame);
+            if (tail.size() > count) {
+                Mat evicted = tail.pollFirst();
+                if (framePool != null) {
+                    framePool.recycle(evicted);
+                } else {
+                    evicted.release();
+                }
+            }
+        }
+        return new ArrayList<>(tail);
+    }
+
+    public long getLengthInTime() {
+        return grabber.getLengthInTime();
+    }
+
+    public String getVideoPath() {
+        return videoPath;
+    }
+
+    public int getFramesRead() {
+        return framesRead;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void close() throws Exception {
+        grabber.stop();
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a per-clip ingest step (probe, open, decode or index) for all inputs concurrently,
+ * with at most a fixed number of clips in flight. Results come back in input order.
+ */
+public class ClipIngest {
+
+    /**
+     * Work done for a single input clip
+     */
+    public interface ClipTask<T> {
+        T load(int clipIndex) throws Exception;
+    }
+
+    /**
+     * Run the task for clips 0..clipCount-1 using up to concurrency threads
+     * @return Results in clip order
+     */
+    public static <T> List<T> loadAll(int clipCount, int concurrency, ClipTask<T> task) throws Exception {
+        int threads = Math.max(1, Math.min(concurrency, clipCount));
+        List<T> results = new ArrayList<>(clipCount);
+
+        if (threads == 1) {
+            for (int i = 0; i < clipCount; i++) {
+                results.add(task.load(i));
+            }
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<T>> futures = new ArrayList<>(clipCount);
+            for (int i = 0; i < clipCount; i++) {
+                final int clipIndex = i;
+                futures.add(executor.submit(() -> task.load(clipIndex)));
+            }
+
+            // Wait for every clip before reporting, so no load is still running when the caller cleans up
+            Exception firstError = null;
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    results.add(null);
+                    if (firstError == null) {
+                        firstError = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+            if (firstError != null) {
+                throw firstError;
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Opens the next clip and decodes its leading transition frames on a background thread
+ * while the current clip is still being written, so transitions do not wait on I/O.
+ * A take that finds the prefetch already finished counts as a hit, otherwise as a stall.
+ */
+public class ClipPrefetcher implements AutoCloseable {
+    private final VideoTransitionEngine.SourceOpener opener;
+    private final int windowSize;
+    private final MemoryGovernor memoryGovernor;
+    private final long frameBytes;
+    private final ExecutorService executor;
+
+    private Future<PrefetchedClip> pending = null;
+    private int pendingClipIndex = -1;
+
+    private int hits = 0;
+    private int stalls = 0;
+    private long stallNanos = 0;
+
+    public ClipPrefetcher(VideoTransitionEngine.SourceOpener opener, int windowSize) {
+        this(opener, windowSize, null, 0);
+    }
+
+    /**
+     * Prefetcher that waits for room under the governor's budget before decoding a head
+     */
+    public ClipPrefetcher(VideoTransitionEngine.SourceOpener opener, int windowSize,
+                          MemoryGovernor memoryGovernor, long frameBytes) {
+        this.opener = opener;
+        this.windowSize = windowSize;
+        this.memoryGovernor = memoryGovernor;
+        this.frameBytes = frameBytes;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clip-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start opening a clip and decoding its head in the background
+     */
+    public void prefetch(int clipIndex) {
+        discardPending();
+        pendingClipIndex = clipIndex;
+        pending = executor.submit(() -> {
+            if (memoryGovernor != null) {
+                memoryGovernor.awaitCapacity(frameBytes * windowSize);
+            }
+            FrameSource source = opener.open(clipIndex);
+            try {
+                return new PrefetchedClip(source, source.readFrames(windowSize));
+            } catch (Exception e) {
+                source.close();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Get the prefetched clip, waiting for it if the background decode has not finished.
+     * Falls back to a direct open when the clip was not prefetched.
+     */
+    public PrefetchedClip take(int clipIndex) throws Exception {
+        if (pending == null || pendingClipIndex != clipIndex) {
+            discardPending();
+            stalls++;
+            long waitStart = System.nanoTime();
+            FrameSource source = opener.open(clipIndex);
+            PrefetchedClip clip = new PrefetchedClip(source, source.readFrames(windowSize));
+            stallNanos += System.nanoTime() - waitStart;
+            return clip;
+        }
+
+        Future<PrefetchedClip> future = pending;
+        pending = null;
+        pendingClipIndex = -1;
+
+        if (future.isDone()) {
+            hits++;
+        } else {
+            stalls++;
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            stallNanos += System.nanoTime() - waitStart;
+        }
+    }
+
+    /**
+     * Drop an unclaimed prefetch, closing its source and releasing its frames
+     */
+    private void discardPending() {
+        if (pending == null) {
+            return;
+        }
+        Future<PrefetchedClip> future = pending;
+        pending = null;
+        pendingClipIndex = -1;
+        try {
+            future.get().release();
+        } catch (Exception e) {
+            // Nothing was handed out, so the failure is irrelevant
+        }
+    }
+
+    @Override
+    public void close() {
+        discardPending();
+        executor.shutdownNow();
+    }
+
+    public int getHits() { return hits; }
+    public int getStalls() { return stalls; }
+    public long getStallMillis() { return stallNanos / 1000000; }
+
+    public String getReport() {
+        return String.format("Prefetch: %d hits, %d stalls, %d ms waiting on the next clip",
+                             hits, stalls, getStallMillis());
+    }
+
+    /**
+     * An opened clip together with its already decoded leading frames
+     */
+    public static class PrefetchedClip {
+        public final FrameSource source;
+        public final List<Mat> head;
+
+        PrefetchedClip(FrameSource source, List<Mat> head) {
+            this.source = source;
+            this.head = head;
+        }
+
+        void release() throws Exception {
+            for (Mat frame : head) {
+                frame.release();
+            }
+            source.close();
+        }
+    }
+}
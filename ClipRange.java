@@ -0,0 +1,55 @@
+/**
+ * In/out points of an input clip, in microseconds.
+ * A negative in point is measured back from the end of the clip.
+ */
+public class ClipRange {
+    public static final long END = -1;
+
+    private final long inPoint;
+    private final long outPoint;
+
+    public ClipRange(long inPointMicros, long outPointMicros) {
+        this.inPoint = inPointMicros;
+        this.outPoint = outPointMicros;
+    }
+
+    /**
+     * Create a range from seconds; a negative out point means the end of the clip
+     */
+    public static ClipRange ofSeconds(double inSeconds, double outSeconds) {
+        return new ClipRange((long) (inSeconds * 1000000.0),
+                             outSeconds < 0 ? END : (long) (outSeconds * 1000000.0));
+    }
+
+    /**
+     * Range covering only the last given seconds of a clip
+     */
+    public static ClipRange lastSeconds(double seconds) {
+        return new ClipRange(-(long) (seconds * 1000000.0), END);
+    }
+
+    /**
+     * Resolve the in point against the clip length
+     */
+    public long resolveInPoint(long lengthMicros) {
+        if (inPoint >= 0) {
+            return inPoint;
+        }
+        return Math.max(0, lengthMicros + inPoint);
+    }
+
+    public long getInPoint() { return inPoint; }
+    public long getOutPoint() { return outPoint; }
+
+    /**
+     * True when the range starts at the beginning and runs to the end of the clip
+     */
+    public boolean isFullClip() {
+        return inPoint == 0 && outPoint == END;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClipRange{in=%dus, out=%s}", inPoint, outPoint == END ? "end" : outPoint + "us");
+    }
+}
@@ -5,7 +5,6 @@ import static org.bytedeco.opencv.global.opencv_core.*;
 import static org.bytedeco.opencv.global.opencv_imgproc.*;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -62,8 +61,8 @@ public class CompleteTransitionCombiner {
             String video2Path = videoFiles[1].getAbsolutePath();
             
             System.out.println("Loading videos...");
-            List<Mat> video1Frames = loadVideoFrames(video1Path, "Video 1");
-            List<Mat> video2Frames = loadVideoFrames(video2Path, "Video 2");
+            CompressedFrameStore video1Frames = loadVideoFrames(video1Path, "Video 1");
+            CompressedFrameStore video2Frames = loadVideoFrames(video2Path, "Video 2");
             
             if (video1Frames.isEmpty() || video2Frames.isEmpty()) {
                 System.err.println("ERROR: Failed to load video frames");
@@ -105,8 +104,8 @@ public class CompleteTransitionCombiner {
     /**
      * Load video frames from file
      */
-    private List<Mat> loadVideoFrames(String videoPath, String videoName) {
-        List<Mat> frames = new ArrayList<>();
+    private CompressedFrameStore loadVideoFrames(String videoPath, String videoName) {
+        CompressedFrameStore frames = new CompressedFrameStore();
         FFmpegFrameGrabber grabber = null;
         
         try {
@@ -128,6 +127,7 @@ public class CompleteTransitionCombiner {
                         Mat resized = new Mat();
                         resize(mat, resized, new Size(TARGET_WIDTH, TARGET_HEIGHT));
                         frames.add(resized);
+                        resized.release();
                         frameCount++;
                         mat.release();
                     }
@@ -469,30 +469,8 @@ public class CompleteTransitionCombiner {
      */
     private Mat applyDiagonalTransition(Mat frame1, Mat frame2, double progress) {
         Mat result = new Mat();
-        frame1.copyTo(result);
-        
-        Mat mask = new Mat(TARGET_HEIGHT, TARGET_WIDTH, CV_8UC1, new Scalar(0));
-        
-        // Create diagonal wipe mask
-        Point[] points = new Point[3];
-        points[0] = new Point(0, 0);
-        points[1] = new Point(TARGET_WIDTH * progress, 0);
-        points[2] = new Point(0, TARGET_HEIGHT * progress);
-        
-        if (progress > 0) {
-            // Fill triangle
-            for (int y = 0; y < TARGET_HEIGHT; y++) {
-                for (int x = 0; x < TARGET_WIDTH; x++) {
-                    if (x + y < (TARGET_WIDTH + TARGET_HEIGHT) * progress) {
-                        mask.ptr(y, x).put((byte)255);
-                    }
-                }
-            }
-            
-            frame2.copyTo(result, mask);
-        }
-        
-        mask.release();
+        WipeField.get(WipeField.Pattern.DIAGONAL, TARGET_WIDTH, TARGET_HEIGHT)
+            .composite(frame1, frame2, progress, result, FramePool.getShared());
         return result;
     }
 
@@ -658,11 +636,8 @@ public class CompleteTransitionCombiner {
     /**
      * Cleanup frame list
      */
-    private void cleanupFrames(List<Mat> frames) {
-        for (Mat frame : frames) {
-            if (frame != null && !frame.empty()) {
-                frame.release();
-            }
-        }
+    private void cleanupFrames(CompressedFrameStore frames) {
+        System.out.println("  " + frames.getReport());
+        frames.close();
     }
 }
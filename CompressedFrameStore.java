@@ -0,0 +1,166 @@
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only frame list that keeps cached clips compressed in memory.
+ *
+ * Each added frame is encoded once (lossless PNG or visually lossless JPEG) and only the encoded bytes
+ * are kept. get() decodes on demand into a small LRU of raw Mats, so a combiner that reuses the same
+ * frames across many passes holds a few raw frames instead of the whole clip.
+ *
+ * A Mat returned by get() belongs to the store and stays valid until hotFrames further frames have
+ * been decoded from the same store. Callers must not release it.
+ */
+public class CompressedFrameStore extends AbstractList<Mat> implements AutoCloseable {
+
+    /**
+     * How cached frames are encoded
+     */
+    public enum Codec {
+        LOSSLESS(".png", IMWRITE_PNG_COMPRESSION, 1),
+        VISUALLY_LOSSLESS(".jpg", IMWRITE_JPEG_QUALITY, 95);
+
+        private final String extension;
+        private final int paramKey;
+        private final int paramValue;
+
+        Codec(String extension, int paramKey, int paramValue) {
+            this.extension = extension;
+            this.paramKey = paramKey;
+            this.paramValue = paramValue;
+        }
+    }
+
+    public static final int DEFAULT_HOT_FRAMES = 8;
+
+    private final Codec codec;
+    private final FramePool framePool;
+    private final List<byte[]> encoded = new ArrayList<>();
+    private final List<int[]> shapes = new ArrayList<>();
+    private final LinkedHashMap<Integer, Mat> hot;
+
+    private long rawBytes = 0;
+    private long compressedBytes = 0;
+    private long encodeNanos = 0;
+    private long decodeNanos = 0;
+    private long hotHits = 0;
+    private long decodes = 0;
+
+    public CompressedFrameStore() {
+        this(Codec.VISUALLY_LOSSLESS, DEFAULT_HOT_FRAMES, FramePool.getShared());
+    }
+
+    /**
+     * @param codec Encoding for cached frames
+     * @param hotFrames Number of decoded frames kept raw (at least 2, so two frames can be used together)
+     * @param framePool Pool that decoded frames are borrowed from and returned to
+     */
+    public CompressedFrameStore(Codec codec, int hotFrames, FramePool framePool) {
+        this.codec = codec;
+        this.framePool = framePool;
+        final int capacity = Math.max(2, hotFrames);
+        this.hot = new LinkedHashMap<Integer, Mat>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Mat> eldest) {
+                if (size() > capacity) {
+                    CompressedFrameStore.this.framePool.recycle(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Encode and append a frame. The frame is not retained, so the caller still owns it.
+     */
+    @Override
+    public synchronized boolean add(Mat frame) {
+        long start = System.nanoTime();
+        BytePointer buffer = new BytePointer();
+        try (IntPointer params = new IntPointer(codec.paramKey, codec.paramValue)) {
+            if (!imencode(codec.extension, frame, buffer, params)) {
+                throw new IllegalStateException("Could not encode frame " + encoded.size());
+            }
+            byte[] bytes = new byte[(int) buffer.limit()];
+            buffer.get(bytes);
+            encoded.add(bytes);
+            shapes.add(new int[] { frame.rows(), frame.cols(), frame.type() });
+            rawBytes += frame.total() * frame.elemSize();
+            compressedBytes += bytes.length;
+        } finally {
+            buffer.deallocate();
+            encodeNanos += System.nanoTime() - start;
+        }
+        return true;
+    }
+
+    /**
+     * Decoded frame at index, served from the hot cache when possible
+     */
+    @Override
+    public synchronized Mat get(int index) {
+        Mat frame = hot.get(index);
+        if (frame != null) {
+            hotHits++;
+            return frame;
+        }
+
+        long start = System.nanoTime();
+        int[] shape = shapes.get(index);
+        Mat decoded = framePool.acquire(shape[0], shape[1], shape[2]);
+        try (BytePointer data = new BytePointer(encoded.get(index)); Mat bytes = new Mat(data)) {
+            imdecode(bytes, IMREAD_UNCHANGED, decoded);
+        }
+        decodes++;
+        decodeNanos += System.nanoTime() - start;
+
+        hot.put(index, decoded);
+        return decoded;
+    }
+
+    @Override
+    public synchronized int size() {
+        return encoded.size();
+    }
+
+    /**
+     * Drop the encoded frames and return the hot frames to the pool
+     */
+    @Override
+    public synchronized void close() {
+        for (Mat frame : hot.values()) {
+            framePool.recycle(frame);
+        }
+        hot.clear();
+        encoded.clear();
+        shapes.clear();
+    }
+
+    public synchronized long getRawBytes() { return rawBytes; }
+    public synchronized long getCompressedBytes() { return compressedBytes; }
+    public synchronized long getHotHits() { return hotHits; }
+    public synchronized long getDecodes() { return decodes; }
+    public synchronized long getDecodeMillis() { return decodeNanos / 1000000; }
+    public synchronized long getEncodeMillis() { return encodeNanos / 1000000; }
+
+    public synchronized double getCompressionRatio() {
+        return compressedBytes == 0 ? 0.0 : (double) rawBytes / compressedBytes;
+    }
+
+    public synchronized String getReport() {
+        return String.format("Frame store: %d frames, %.1f MB raw -> %.1f MB %s (%.1fx), " +
+                             "%d hot hits, %d decodes (%.2f ms avg), %d ms encoding",
+                             encoded.size(), rawBytes / (1024.0 * 1024.0), compressedBytes / (1024.0 * 1024.0),
+                             codec, getCompressionRatio(), hotHits, decodes,
+                             decodes == 0 ? 0.0 : decodeNanos / 1000000.0 / decodes, getEncodeMillis());
+    }
+}
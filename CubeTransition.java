@@ -0,0 +1,149 @@
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_core.CV_32FC2;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+/**
+ * 3D cube rotation: the outgoing frame is the front face of a cube that turns about its vertical axis
+ * until the incoming frame, on the neighbouring face, faces the viewer.
+ *
+ * Each face is a perspective projection, stored as a cached remap table per progress step, so a frame
+ * costs one remap per visible face over a black background. When the tables for every step do not fit
+ * in the cache, each face is drawn with warpPerspective instead.
+ */
+public class CubeTransition extends BaseTransition {
+    // Camera distance from the front face, in half face widths
+    private static final double CAMERA_DISTANCE = 3.0;
+
+    private TransitionType type;
+
+    public CubeTransition(int width, int height, int transitionFrames, TransitionType type) {
+        super(width, height, transitionFrames);
+        this.type = type;
+    }
+
+    @Override
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
+        clearFrame(destination);
+        RemapCache cache = RemapCache.getShared();
+        if (!cache.fits(width, height, transitionFrames, 2)) {
+            double step = RemapCache.quantize(progress, transitionFrames);
+            warpFace(frame1, step, false, destination);
+            warpFace(frame2, step, true, destination);
+            return;
+        }
+        cache.get("cube:" + type + ":front", width, height, progress, transitionFrames,
+                  (p, w, h, x, y) -> fillFace(p, w, h, x, y, false)).applyOver(frame1, destination);
+        cache.get("cube:" + type + ":side", width, height, progress, transitionFrames,
+                  (p, w, h, x, y) -> fillFace(p, w, h, x, y, true)).applyOver(frame2, destination);
+    }
+
+    /**
+     * Draw one face over destination through the homography between its corners and their projection
+     */
+    private void warpFace(Mat source, double progress, boolean side, Mat destination) {
+        double angle = easeInOut(progress) * Math.PI / 2;
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        if ((side ? sin : cos) < 1e-3) {
+            // Edge-on face: nothing to draw, and its corners would give a degenerate homography
+            return;
+        }
+        double aspect = height / (double) width;
+        double d = CAMERA_DISTANCE;
+        boolean mirrored = type == TransitionType.CUBE_RIGHT;
+
+        // Corners as (u, faceY / aspect), projected with the same camera as fillFace
+        double[][] corners = { { -1, -1 }, { 1, -1 }, { 1, 1 }, { -1, 1 } };
+        float[] sourceCorners = new float[8];
+        float[] screenCorners = new float[8];
+        for (int i = 0; i < corners.length; i++) {
+            double u = corners[i][0];
+            double x = side ? cos + u * sin : u * cos - sin;
+            double z = side ? -sin + u * cos : -u * sin - cos;
+            double scale = d / (z + 1 + d);
+            double screenX = mirrored ? -x * scale : x * scale;
+            double sourceX = (u + 1) / 2 * (width - 1);
+
+            sourceCorners[2 * i] = (float) (mirrored ? (width - 1) - sourceX : sourceX);
+            sourceCorners[2 * i + 1] = (float) ((corners[i][1] + 1) / 2 * (height - 1));
+            screenCorners[2 * i] = (float) ((screenX + 1) / 2 * (width - 1));
+            screenCorners[2 * i + 1] = (float) ((corners[i][1] * scale + 1) / 2 * (height - 1));
+        }
+
+        FloatPointer sourcePoints = new FloatPointer(sourceCorners);
+        FloatPointer screenPoints = new FloatPointer(screenCorners);
+        Mat homography = getPerspectiveTransform(new Mat(4, 1, CV_32FC2, sourcePoints),
+                                                 new Mat(4, 1, CV_32FC2, screenPoints));
+        warpPerspective(source, destination, homography, new Size(width, height),
+                        INTER_LINEAR, BORDER_TRANSPARENT, new Scalar(0.0));
+        homography.release();
+        sourcePoints.close();
+        screenPoints.close();
+    }
+
+    /**
+     * Source coordinates of one face of the cube, or -1 where the face is not visible.
+     *
+     * Screen coordinates are normalised so the unrotated front face spans x in [-1, 1] and y in
+     * [-aspect, aspect]. The cube has half-width 1 and turns by the eased angle about the vertical axis
+     * through its centre. CUBE_RIGHT is CUBE_LEFT mirrored horizontally.
+     */
+    private void fillFace(double progress, int width, int height, float[] mapX, float[] mapY, boolean side) {
+        double angle = easeInOut(progress) * Math.PI / 2;
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double aspect = height / (double) width;
+        double d = CAMERA_DISTANCE;
+        boolean mirrored = type == TransitionType.CUBE_RIGHT;
+        boolean visible = side ? sin > 1e-6 : cos > 1e-6;
+
+        for (int y = 0; y < height; y++) {
+            double screenY = (2.0 * y / Math.max(1, height - 1) - 1.0) * aspect;
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                mapX[index] = -1;
+                mapY[index] = -1;
+                if (!visible) {
+                    continue;
+                }
+
+                double screenX = 2.0 * x / Math.max(1, width - 1) - 1.0;
+                if (mirrored) {
+                    screenX = -screenX;
+                }
+
+                // Intersect the view ray with the rotated face plane
+                double u;
+                double depth;
+                if (side) {
+                    // Right face points (1, Y, u) after rotation: X = cos + u sin, Z = -sin + u cos
+                    double denominator = sin * d - screenX * cos;
+                    if (Math.abs(denominator) < 1e-9) {
+                        continue;
+                    }
+                    u = (screenX * (1 + d - sin) - cos * d) / denominator;
+                    depth = -sin + u * cos;
+                } else {
+                    // Front face points (u, Y, -1) after rotation: X = u cos - sin, Z = -u sin - cos
+                    double denominator = cos * d + screenX * sin;
+                    if (Math.abs(denominator) < 1e-9) {
+                        continue;
+                    }
+                    u = (screenX * (1 + d - cos) + sin * d) / denominator;
+                    depth = -u * sin - cos;
+                }
+                double faceY = screenY * (depth + 1 + d) / d;
+                if (u < -1 || u > 1 || faceY < -aspect || faceY > aspect) {
+                    continue;
+                }
+
+                double sourceX = (u + 1) / 2 * (width - 1);
+                mapX[index] = (float) (mirrored ? (width - 1) - sourceX : sourceX);
+                mapY[index] = (float) ((faceY / aspect + 1) / 2 * (height - 1));
+            }
+        }
+    }
+}
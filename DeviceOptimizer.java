@@ -130,6 +130,20 @@ public class DeviceOptimizer {
         }
     }
     
+    /**
+     * Get the decode-time scaling algorithm for the current device
+     */
+    public ScalingQuality getScalingQuality() {
+        switch (deviceTier) {
+            case "LOW_END":
+                return ScalingQuality.FAST;
+            case "HIGH_END":
+                return ScalingQuality.AREA;
+            default:
+                return ScalingQuality.BILINEAR;
+        }
+    }
+    
     /**
      * Get memory usage recommendations
      */
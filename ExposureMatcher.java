@@ -8,11 +8,11 @@ public class ExposureMatcher {
         }
         try {
             Mat result = new Mat();
-            addWeighted(sourceFrame, 1.0 - blendFactor, targetFrame, blendFactor, 0, result);
+            PixelKernels.blend(targetFrame, sourceFrame, blendFactor, result);
             return result;
         } catch (Exception e) {
             System.err.println("Error in exposure matching: " + e.getMessage());
             return sourceFrame.clone();
         }
     }
-}
+}
@@ -14,52 +14,62 @@ public class FadeTransition extends BaseTransition {
     }
     
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         switch (type) {
             case FADE_IN:
-                return fadeIn(frame2, progress);
+                fadeIn(frame2, progress, destination);
+                break;
             case FADE_OUT:
-                return fadeOut(frame1, progress);
+                fadeOut(frame1, progress, destination);
+                break;
             case CROSSFADE:
-                return crossfade(frame1, frame2, progress);
+                crossfade(frame1, frame2, progress, destination);
+                break;
             case DISSOLVE:
-                return dissolve(frame1, frame2, progress);
+                dissolve(frame1, frame2, progress, destination);
+                break;
             default:
-                return crossfade(frame1, frame2, progress);
+                crossfade(frame1, frame2, progress, destination);
+                break;
         }
     }
     
     /**
      * Fade in effect - frame gradually appears from black
      */
-    private Mat fadeIn(Mat frame, double progress) {
-        Mat black = VideoProcessor.createBlankFrame(width, height);
+    private void fadeIn(Mat frame, double progress, Mat result) {
         double alpha = easeInOut(progress);
-        return VideoProcessor.blendFrames(black, frame, alpha);
+        fadeToBlack(frame, 1.0 - alpha, result);
     }
     
     /**
      * Fade out effect - frame gradually disappears to black
      */
-    private Mat fadeOut(Mat frame, double progress) {
-        Mat black = VideoProcessor.createBlankFrame(width, height);
+    private void fadeOut(Mat frame, double progress, Mat result) {
         double alpha = 1.0 - easeInOut(progress);
-        return VideoProcessor.blendFrames(black, frame, alpha);
+        fadeToBlack(frame, 1.0 - alpha, result);
+    }
+    
+    /**
+     * Scale a frame's brightness. Same result as blending with a black frame, without allocating one.
+     */
+    private void fadeToBlack(Mat frame, double weight, Mat result) {
+        frame.convertTo(result, -1, weight, blackLevel * (1.0 - weight));
     }
     
     /**
      * Crossfade effect - smooth blend between two frames
      */
-    private Mat crossfade(Mat frame1, Mat frame2, double progress) {
+    private void crossfade(Mat frame1, Mat frame2, double progress, Mat result) {
         double alpha = easeInOut(progress);
-        return VideoProcessor.blendFrames(frame1, frame2, alpha);
+        VideoProcessor.blendFrames(frame1, frame2, alpha, result);
     }
     
     /**
      * Dissolve effect - similar to crossfade but with different easing
      */
-    private Mat dissolve(Mat frame1, Mat frame2, double progress) {
+    private void dissolve(Mat frame1, Mat frame2, double progress, Mat result) {
         // Use linear progress for dissolve effect
-        return VideoProcessor.blendFrames(frame1, frame2, progress);
+        VideoProcessor.blendFrames(frame1, frame2, progress, result);
     }
 }
@@ -0,0 +1,148 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+/**
+ * Gaussian-like blur whose cost stays close to constant as the radius grows.
+ *
+ * Modes:
+ * - GAUSSIAN: full-resolution GaussianBlur (the reference; cost grows with the radius)
+ * - PYRAMID: pyrDown the frame while the blur still leaves enough smoothing to do, apply the remaining
+ *   Gaussian at the reduced level and upsample once. Each pyrDown halves the work that follows it.
+ * - BOX: three box filters sized to approximate the Gaussian; box filters use running sums, so each
+ *   pass costs the same at any width
+ *
+ * Quality (0-1) applies to PYRAMID: higher keeps more of the blur at a finer level, which is slower but
+ * closer to GAUSSIAN.
+ */
+public class FastBlur {
+    public enum Mode { GAUSSIAN, PYRAMID, BOX }
+
+    public static final double DEFAULT_QUALITY = 0.25;
+
+    private static final int MAX_LEVELS = 6;
+    private static final int BOX_PASSES = 3;
+
+    private final Mode mode;
+    private final double quality;
+
+    public FastBlur() {
+        this(Mode.PYRAMID, DEFAULT_QUALITY);
+    }
+
+    public FastBlur(Mode mode, double quality) {
+        this.mode = mode;
+        this.quality = Math.max(0.0, Math.min(1.0, quality));
+    }
+
+    /**
+     * Blur frame with the given Gaussian sigma (in pixels) into result
+     * @param framePool Pool for the reduced pyramid levels
+     */
+    public void apply(Mat frame, double sigma, Mat result, FramePool framePool) {
+        if (sigma < 0.5) {
+            frame.copyTo(result);
+            return;
+        }
+        switch (mode) {
+            case GAUSSIAN:
+                GaussianBlur(frame, result, new Size(0, 0), sigma);
+                break;
+            case BOX:
+                boxBlur(frame, sigma, result);
+                break;
+            case PYRAMID:
+            default:
+                pyramidBlur(frame, sigma, result, framePool);
+                break;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getQuality() {
+        return quality;
+    }
+
+    private void pyramidBlur(Mat frame, double sigma, Mat result, FramePool framePool) {
+        int levels = pyramidLevels(sigma);
+        if (levels == 0) {
+            GaussianBlur(frame, result, new Size(0, 0), sigma);
+            return;
+        }
+
+        Mat[] pyramid = new Mat[levels];
+        Mat current = frame;
+        try {
+            for (int i = 0; i < levels; i++) {
+                pyramid[i] = framePool.acquire((current.rows() + 1) / 2, (current.cols() + 1) / 2, frame.type());
+                pyrDown(current, pyramid[i]);
+                current = pyramid[i];
+            }
+            double residual = residualSigma(sigma, levels);
+            if (residual >= 0.3) {
+                GaussianBlur(current, current, new Size(0, 0), residual);
+            }
+            resize(current, result, frame.size(), 0, 0, INTER_LINEAR);
+        } finally {
+            for (Mat level : pyramid) {
+                if (level != null) {
+                    framePool.recycle(level);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of pyrDown steps to take. Each step blurs with sigma 1 at its own scale, so after n steps
+     * the frame carries sigma^2 = (4^n - 1) / 3 in full-resolution pixels; stop while the Gaussian left
+     * to apply at the reduced level is still wide enough to hide the final upsampling.
+     */
+    int pyramidLevels(double sigma) {
+        double minResidual = 1.0 + 2.0 * quality;
+        int levels = 0;
+        while (levels < MAX_LEVELS
+               && (Math.pow(4, levels + 1) - 1) / 3.0 < sigma * sigma
+               && residualSigma(sigma, levels + 1) >= minResidual) {
+            levels++;
+        }
+        return levels;
+    }
+
+    /**
+     * Sigma still to apply after the given number of pyrDown steps, in that level's pixels
+     */
+    private static double residualSigma(double sigma, int levels) {
+        double pyramidVariance = (Math.pow(4, levels) - 1) / 3.0;
+        return Math.sqrt(Math.max(0.0, sigma * sigma - pyramidVariance)) / (1 << levels);
+    }
+
+    private static void boxBlur(Mat frame, double sigma, Mat result) {
+        Mat source = frame;
+        for (int width : boxWidths(sigma, BOX_PASSES)) {
+            blur(source, result, new Size(width, width));
+            source = result;
+        }
+    }
+
+    /**
+     * Odd box widths whose repeated application has the variance of a Gaussian with this sigma
+     */
+    static int[] boxWidths(double sigma, int passes) {
+        double ideal = Math.sqrt(12 * sigma * sigma / passes + 1);
+        int lower = (int) Math.floor(ideal);
+        if (lower % 2 == 0) {
+            lower--;
+        }
+        int upper = lower + 2;
+        long lowerPasses = Math.round((12 * sigma * sigma - passes * lower * lower - 4.0 * passes * lower - 3 * passes)
+                                      / (-4.0 * lower - 4));
+        int[] widths = new int[passes];
+        for (int i = 0; i < passes; i++) {
+            widths[i] = i < lowerPasses ? lower : upper;
+        }
+        return widths;
+    }
+}
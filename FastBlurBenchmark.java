@@ -0,0 +1,93 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+/**
+ * Compares FastBlur's PYRAMID and BOX modes with a full-resolution GaussianBlur at increasing sigma:
+ * PSNR against the Gaussian and time per frame, at 720p, 1080p and 4K. The fast modes should stay
+ * close to flat in time as sigma grows.
+ *
+ * Usage: java FastBlurBenchmark [iterations]
+ */
+public class FastBlurBenchmark {
+    private static final int[][] RESOLUTIONS = { { 1280, 720 }, { 1920, 1080 }, { 3840, 2160 } };
+    private static final double[] SIGMAS = { 2, 4, 8, 16, 32 };
+
+    // Blurred output is smooth, so a good approximation scores well above this
+    private static final double MIN_PSNR = 30.0;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        System.out.println("Fast Blur Benchmark");
+        System.out.println("===================");
+        System.out.println("Iterations per measurement: " + iterations);
+        System.out.println();
+
+        boolean allPassed = true;
+        for (int[] resolution : RESOLUTIONS) {
+            allPassed &= run(resolution[0], resolution[1], iterations);
+        }
+
+        System.out.println(allPassed ? "✓ Fast blurs match GaussianBlur" : "✗ Fast blurs differ from GaussianBlur");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(int width, int height, int iterations) {
+        System.out.println(width + "x" + height + ":");
+        FramePool framePool = new FramePool(FramePool.DEFAULT_MAX_POOLED_BYTES);
+        Mat frame = new Mat(height, width, CV_8UC3);
+        randu(frame, new Mat(1, 1, CV_64F, new Scalar(0)), new Mat(1, 1, CV_64F, new Scalar(256)));
+        GaussianBlur(frame, frame, new Size(5, 5), 0);
+
+        FastBlur gaussian = new FastBlur(FastBlur.Mode.GAUSSIAN, 1.0);
+        FastBlur pyramid = new FastBlur();
+        FastBlur box = new FastBlur(FastBlur.Mode.BOX, 1.0);
+        Mat expected = new Mat(height, width, CV_8UC3);
+        Mat pyramidResult = new Mat(height, width, CV_8UC3);
+        Mat boxResult = new Mat(height, width, CV_8UC3);
+
+        boolean passed = true;
+        for (double sigma : SIGMAS) {
+            gaussian.apply(frame, sigma, expected, framePool);
+            pyramid.apply(frame, sigma, pyramidResult, framePool);
+            box.apply(frame, sigma, boxResult, framePool);
+            double pyramidPsnr = PSNR(expected, pyramidResult);
+            double boxPsnr = PSNR(expected, boxResult);
+            boolean ok = pyramidPsnr >= MIN_PSNR && boxPsnr >= MIN_PSNR;
+            passed &= ok;
+
+            double gaussianMs = time(iterations, () -> gaussian.apply(frame, sigma, expected, framePool));
+            double pyramidMs = time(iterations, () -> pyramid.apply(frame, sigma, pyramidResult, framePool));
+            double boxMs = time(iterations, () -> box.apply(frame, sigma, boxResult, framePool));
+            System.out.println(String.format("  %s sigma %4.1f: gaussian %.3f ms, pyramid %.3f ms (%.1f dB), box %.3f ms (%.1f dB)",
+                                             ok ? "✓" : "✗", sigma, gaussianMs, pyramidMs, pyramidPsnr, boxMs, boxPsnr));
+        }
+        System.out.println();
+
+        frame.release();
+        expected.release();
+        pyramidResult.release();
+        boxResult.release();
+        framePool.clear();
+        return passed;
+    }
+
+    /**
+     * Average milliseconds per call after a warm-up
+     */
+    private static double time(int iterations, Runnable operation) {
+        for (int i = 0; i < Math.min(3, iterations); i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1000000.0 / iterations;
+    }
+}
@@ -337,20 +337,8 @@ public class FinalRealTransitionDemo {
      */
     private Mat applyDiagonal(Mat frame1, Mat frame2, double progress) {
         Mat result = new Mat();
-        frame1.copyTo(result);
-        
-        Mat mask = new Mat(HEIGHT, WIDTH, CV_8UC1, new Scalar(0));
-        
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                if (x + y < (WIDTH + HEIGHT) * progress) {
-                    mask.ptr(y, x).put((byte)255);
-                }
-            }
-        }
-        
-        frame2.copyTo(result, mask);
-        mask.release();
+        WipeField.get(WipeField.Pattern.DIAGONAL, WIDTH, HEIGHT)
+            .composite(frame1, frame2, progress, result, FramePool.getShared());
         return result;
     }
     
@@ -359,30 +347,8 @@ public class FinalRealTransitionDemo {
      */
     private Mat applySpiral(Mat frame1, Mat frame2, double progress) {
         Mat result = new Mat();
-        frame1.copyTo(result);
-        
-        Mat mask = new Mat(HEIGHT, WIDTH, CV_8UC1, new Scalar(0));
-        
-        int centerX = WIDTH / 2;
-        int centerY = HEIGHT / 2;
-        double maxAngle = 4 * Math.PI * progress;
-        int maxRadius = (int)Math.sqrt(centerX * centerX + centerY * centerY);
-        
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                int dx = x - centerX;
-                int dy = y - centerY;
-                double angle = Math.atan2(dy, dx) + Math.PI;
-                double radius = Math.sqrt(dx * dx + dy * dy);
-                
-                if (angle <= maxAngle && radius <= maxRadius * progress) {
-                    mask.ptr(y, x).put((byte)255);
-                }
-            }
-        }
-        
-        frame2.copyTo(result, mask);
-        mask.release();
+        WipeField.get(WipeField.Pattern.SPIRAL, WIDTH, HEIGHT)
+            .composite(frame1, frame2, progress, result, FramePool.getShared());
         return result;
     }
     
@@ -6,7 +6,9 @@ import static org.bytedeco.opencv.global.opencv_core.*;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FIXED VIDEO TRANSITION ENGINE
@@ -25,11 +27,27 @@ public class FixedVideoTransitionEngine {
     private double frameRate;
     private int transitionFrames;
     
+    // Frames held per input clip (0 = no limit) and optional in/out points
+    private int maxFramesPerClip = 300;
+    
+    // Scaling algorithm the decoder uses to produce frames at the output size
+    private ScalingQuality scalingQuality = ScalingQuality.BILINEAR;
+    
+    // Maximum number of input clips decoded at the same time
+    private int ingestConcurrency = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private final Map<Integer, ClipRange> clipRanges = new HashMap<>();
+    
+    // Disk spill tier for decoded clips (quota 0 = keep frames in memory)
+    private File spillDirectory = null;
+    private long spillQuotaBytes = 0;
+    private FrameSpillArea spillArea = null;
+    
     public FixedVideoTransitionEngine(int width, int height, double frameRate, int transitionFrames) {
         this.outputWidth = width;
         this.outputHeight = height;
         this.frameRate = frameRate;
         this.transitionFrames = transitionFrames;
+        PixelKernels.selectBackend();
     }
     
     /**
@@ -60,8 +78,13 @@ public class FixedVideoTransitionEngine {
             // CRITICAL FIX 1: Setup recorder with all necessary options
             recorder = setupRecorder(outputPath);
             
+            if (spillQuotaBytes > 0) {
+                spillArea = new FrameSpillArea(spillDirectory, spillQuotaBytes);
+                System.out.println("   Spilling decoded frames to " + spillArea.getDirectory());
+            }
+            
             // CRITICAL FIX 2: Pre-load and validate all videos
-            allVideoFrames = loadAndValidateVideos(inputVideos, converter);
+            allVideoFrames = loadAndValidateVideos(inputVideos);
             
             // CRITICAL FIX 3: Process with comprehensive error handling
             int totalFramesWritten = processVideosWithValidation(allVideoFrames, transitions, recorder, converter);
@@ -80,6 +103,11 @@ public class FixedVideoTransitionEngine {
         } finally {
             // CRITICAL FIX 5: Always cleanup resources
             cleanupResources(recorder, allVideoFrames);
+            if (spillArea != null) {
+                System.out.println("   " + spillArea.getReport());
+                spillArea.close();
+                spillArea = null;
+            }
         }
     }
     
@@ -115,78 +143,182 @@ public class FixedVideoTransitionEngine {
     /**
      * Load and validate all input videos
      */
-    private List<List<Mat>> loadAndValidateVideos(List<String> inputVideos, OpenCVFrameConverter.ToMat converter) 
-            throws Exception {
+    private List<List<Mat>> loadAndValidateVideos(List<String> inputVideos) throws Exception {
         
-        System.out.println("📥 Loading and validating input videos...");
-        List<List<Mat>> allVideoFrames = new ArrayList<>();
+        System.out.println("📥 Loading and validating input videos (up to " + ingestConcurrency + " at a time)...");
+        List<List<Mat>> allVideoFrames = ClipIngest.loadAll(inputVideos.size(), ingestConcurrency,
+            i -> loadAndValidateVideo(inputVideos, i));
+        
+        System.out.println("✅ All videos loaded and validated");
+        return allVideoFrames;
+    }
+    
+    /**
+     * Load and validate a single input video. Unreadable or empty inputs yield a blank fallback frame.
+     */
+    private List<Mat> loadAndValidateVideo(List<String> inputVideos, int i) {
+        String videoPath = inputVideos.get(i);
+        System.out.println("   Loading video " + (i + 1) + "/" + inputVideos.size() + ": " + 
+                         new File(videoPath).getName());
         
-        for (int i = 0; i < inputVideos.size(); i++) {
-            String videoPath = inputVideos.get(i);
-            System.out.println("   Loading video " + (i + 1) + "/" + inputVideos.size() + ": " + 
-                             new File(videoPath).getName());
+        // Converters hold per-frame state, so each concurrent load gets its own
+        OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+        FFmpegFrameGrabber grabber = null;
+        List<Mat> frames = new ArrayList<>();
+        
+        try {
+            if (spillArea != null) {
+                frames = spillArea.newClip(outputHeight, outputWidth, CV_8UC3);
+            }
             
-            FFmpegFrameGrabber grabber = null;
-            List<Mat> frames = new ArrayList<>();
+            grabber = new FFmpegFrameGrabber(videoPath);
+            ClipFrameReader.configureScaling(grabber, outputWidth, outputHeight, scalingQuality);
+            grabber.start();
             
-            try {
-                grabber = new FFmpegFrameGrabber(videoPath);
-                grabber.start();
-                
-                Frame frame;
-                int frameCount = 0;
-                int validFrames = 0;
-                
-                while ((frame = grabber.grabFrame()) != null && frameCount < 300) { // Limit frames
-                    frameCount++;
-                    
-                    if (frame.image != null) {
-                        Mat mat = converter.convert(frame);
-                        
-                        // CRITICAL: Validate each frame
-                        if (mat != null && !mat.empty() && mat.cols() > 0 && mat.rows() > 0) {
-                            Mat resized = VideoProcessor.resizeFrame(mat, outputWidth, outputHeight);
-                            
-                            if (!resized.empty()) {
-                                frames.add(resized);
-                                validFrames++;
-                            } else {
-                                mat.release();
-                            }
-                        } else if (mat != null) {
-                            mat.release();
-                        }
-                    }
+            // Seek to the in point instead of decoding everything before it
+            ClipRange range = clipRanges.get(i);
+            long outPoint = ClipRange.END;
+            if (range != null) {
+                long inPoint = range.resolveInPoint(grabber.getLengthInTime());
+                if (inPoint > 0) {
+                    grabber.setTimestamp(inPoint);
                 }
-                
-                System.out.println("     Processed: " + frameCount + " frames, Valid: " + validFrames);
-                
-                if (frames.isEmpty()) {
-                    System.err.println("❌ No valid frames found in video: " + videoPath);
-                    // Add a fallback frame
-                    frames.add(VideoProcessor.createBlankFrame(outputWidth, outputHeight));
+                outPoint = range.getOutPoint();
+            }
+            
+            // A capped clip keeps room for its real tail, read separately below
+            int tailCount = transitionFrames / 2;
+            int bodyLimit = maxFramesPerClip > 0 ? Math.max(1, maxFramesPerClip - tailCount) : 0;
+            boolean capped = false;
+            
+            Frame frame;
+            int frameCount = 0;
+            int validFrames = 0;
+            
+            while ((frame = grabber.grabFrame()) != null) {
+                if (bodyLimit > 0 && validFrames >= bodyLimit) {
+                    capped = true;
+                    break;
                 }
-                
-            } catch (Exception e) {
-                System.err.println("❌ Error loading video " + videoPath + ": " + e.getMessage());
-                if (frames.isEmpty()) {
-                    frames.add(VideoProcessor.createBlankFrame(outputWidth, outputHeight));
+                if (frame.image != null && outPoint != ClipRange.END && frame.timestamp >= outPoint) {
+                    break;
                 }
-            } finally {
-                if (grabber != null) {
-                    try {
-                        grabber.stop();
-                    } catch (Exception e) {
-                        // Ignore cleanup errors
+                frameCount++;
+                
+                if (frame.image != null) {
+                    Mat mat = converter.convert(frame);
+                    
+                    // CRITICAL: Validate each frame
+                    if (mat != null && !mat.empty() && mat.cols() > 0 && mat.rows() > 0) {
+                        if (!storeFrame(frames, mat)) {
+                            System.err.println("⚠️ Spill quota reached, truncating video " + (i + 1)
+                                             + " at " + validFrames + " frames");
+                            break;
+                        }
+                        validFrames++;
+                    } else if (mat != null) {
+                        mat.release();
                     }
                 }
             }
             
-            allVideoFrames.add(frames);
+            if (capped && tailCount > 0) {
+                grabber.stop();
+                grabber = null;
+                int tailFrames = appendTail(frames, videoPath, range);
+                System.out.println("     Longer than " + maxFramesPerClip + " frames: kept the first " + validFrames
+                                 + " and the last " + tailFrames);
+                validFrames += tailFrames;
+            }
+            
+            System.out.println("     Processed: " + frameCount + " frames, Valid: " + validFrames);
+            
+            if (frames.isEmpty()) {
+                System.err.println("❌ No valid frames found in video: " + videoPath);
+                // Add a fallback frame
+                frames = addBlankFrame(frames);
+            }
+            
+        } catch (Exception e) {
+            System.err.println("❌ Error loading video " + videoPath + ": " + e.getMessage());
+            if (frames.isEmpty()) {
+                frames = addBlankFrame(frames);
+            }
+        } finally {
+            if (grabber != null) {
+                try {
+                    grabber.stop();
+                } catch (Exception e) {
+                    // Ignore cleanup errors
+                }
+            }
         }
         
-        System.out.println("✅ All videos loaded and validated");
-        return allVideoFrames;
+        return frames;
+    }
+    
+    /**
+     * Append a decoded frame at the output size, copying it out of the grabber's reused buffer.
+     * Spilled clips copy it straight into their scratch file.
+     * @return false when the spill quota is exhausted
+     */
+    private boolean storeFrame(List<Mat> frames, Mat mat) {
+        boolean spilled = frames instanceof FrameSpillArea.SpilledClip;
+        if (spilled && mat.cols() == outputWidth && mat.rows() == outputHeight) {
+            return frames.add(mat);
+        }
+        
+        // Already scaled by the decoder unless it could not be configured
+        Mat resized = VideoProcessor.copyToSize(mat, null, outputWidth, outputHeight);
+        if (!spilled) {
+            frames.add(resized);
+            return true;
+        }
+        try {
+            return frames.add(resized);
+        } finally {
+            resized.release();
+        }
+    }
+    
+    /**
+     * Append the last frames of a clip cut short by the frame cap, so its transition starts from the
+     * real end of the clip. Seeks near the end instead of decoding the frames in between.
+     * @return Number of frames appended
+     */
+    private int appendTail(List<Mat> frames, String videoPath, ClipRange range) throws Exception {
+        List<Mat> tail;
+        try (ClipFrameReader reader = new ClipFrameReader(videoPath, outputWidth, outputHeight, range, scalingQuality)) {
+            tail = reader.readTail(transitionFrames / 2);
+        }
+        int appended = 0;
+        for (Mat mat : tail) {
+            // storeFrame keeps its own copy, in memory or in the spill file
+            if (storeFrame(frames, mat)) {
+                appended++;
+            }
+            mat.release();
+        }
+        return appended;
+    }
+    
+    /**
+     * Append a blank fallback frame
+     * @return The list now holding the frame
+     */
+    private List<Mat> addBlankFrame(List<Mat> frames) {
+        Mat blank = VideoProcessor.createBlankFrame(outputWidth, outputHeight);
+        if (frames instanceof FrameSpillArea.SpilledClip) {
+            if (frames.add(blank)) {
+                blank.release();
+                return frames;
+            }
+            // Spill quota is exhausted, but the clip still needs its fallback frame
+            ((FrameSpillArea.SpilledClip) frames).close();
+            frames = new ArrayList<>();
+        }
+        frames.add(blank);
+        return frames;
     }
     
     /**
@@ -287,7 +419,10 @@ public class FixedVideoTransitionEngine {
             
             Mat transitionFrame = null;
             try {
-                transitionFrame = transition.applyTransition(frame1, frame2, progress);
+                // Temporaries created by the transition are freed with the scope; only the result escapes
+                try (FrameScope scope = new FrameScope()) {
+                    transitionFrame = FrameScope.escape(transition.applyTransition(frame1, frame2, progress));
+                }
                 
                 if (transitionFrame.empty()) {
                     System.err.println("❌ Empty transition result at progress " + progress);
@@ -344,6 +479,64 @@ public class FixedVideoTransitionEngine {
         return frames.get(frames.size() - 1);
     }
     
+    /**
+     * Limit how many frames are held per clip (default 300, 0 for no limit). A longer clip keeps its
+     * first frames and its last transitionFrames / 2, read by seeking near the end, so transitions
+     * still start from the real end of the clip. Use 0 together with setFrameSpill for long clips.
+     */
+    public void setMaxFramesPerClip(int maxFramesPerClip) {
+        this.maxFramesPerClip = maxFramesPerClip;
+    }
+    
+    public int getMaxFramesPerClip() {
+        return maxFramesPerClip;
+    }
+    
+    /**
+     * Choose the scaling algorithm applied while decoding
+     */
+    public void setScalingQuality(ScalingQuality scalingQuality) {
+        this.scalingQuality = scalingQuality;
+    }
+    
+    /**
+     * Limit how many input clips are decoded concurrently (1 = one after another)
+     */
+    public void setIngestConcurrency(int concurrency) {
+        this.ingestConcurrency = Math.max(1, concurrency);
+    }
+    
+    public int getIngestConcurrency() {
+        return ingestConcurrency;
+    }
+    
+    /**
+     * Restrict an input clip to the given in/out points; loading seeks to the in point
+     */
+    public void setClipRange(int clipIndex, ClipRange range) {
+        if (range == null) {
+            clipRanges.remove(clipIndex);
+        } else {
+            clipRanges.put(clipIndex, range);
+        }
+    }
+    
+    /**
+     * Spill decoded clips to memory-mapped scratch files instead of holding them in memory.
+     * Clips are truncated once quotaBytes of disk is used; combine with setMaxFramesPerClip(0)
+     * to load long clips in full. Scratch files are deleted when the job ends.
+     * @param directory Parent for the scratch directory, or null for the system temp directory
+     * @param quotaBytes Disk quota for the job (0 = disable spilling)
+     */
+    public void setFrameSpill(File directory, long quotaBytes) {
+        this.spillDirectory = directory;
+        this.spillQuotaBytes = Math.max(0, quotaBytes);
+    }
+    
+    public long getSpillQuotaBytes() {
+        return spillQuotaBytes;
+    }
+    
     private BaseTransition createTransition(TransitionType type) {
         switch (type) {
             case CROSSFADE:
@@ -0,0 +1,71 @@
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Conversions between JavaCV Frames and OpenCV Mats through one converter per thread.
+ *
+ * Zero-copy conversions:
+ * - toMat(Frame) wraps the frame's image buffer in a Mat header
+ * - toFrame(Mat) wraps the Mat's data in a Frame, including ROI views (the row stride is carried over)
+ * Both results alias their source. A decoder's Frame is overwritten by the next grab, and the Frame
+ * handed to a recorder must not outlive the Mat it wraps.
+ *
+ * Copying conversion:
+ * - copyToMat(Frame, Mat) copies a decoded frame into a Mat the caller keeps
+ *
+ * Converters cache the last header they built, so each thread reuses its header objects when the
+ * same buffer (for example a pooled frame) comes back, instead of allocating new ones per call.
+ */
+public final class FrameBridge {
+    private static final ThreadLocal<OpenCVFrameConverter.ToMat> CONVERTERS =
+        ThreadLocal.withInitial(OpenCVFrameConverter.ToMat::new);
+
+    private FrameBridge() {}
+
+    /**
+     * Wrap a frame's image buffer without copying
+     * @return A Mat sharing the frame's memory, or null when the frame has no image
+     */
+    public static Mat toMat(Frame frame) {
+        if (frame == null || frame.image == null) {
+            return null;
+        }
+        return CONVERTERS.get().convert(frame);
+    }
+
+    /**
+     * Wrap a Mat's data for a recorder without copying
+     * @return A Frame sharing the Mat's memory
+     */
+    public static Frame toFrame(Mat mat) {
+        return CONVERTERS.get().convert(mat);
+    }
+
+    /**
+     * Copy a frame's image into destination (a new Mat when null)
+     * @return The destination, or null when the frame has no image
+     */
+    public static Mat copyToMat(Frame frame, Mat destination) {
+        Mat view = toMat(frame);
+        if (view == null) {
+            return null;
+        }
+        if (destination == null) {
+            return view.clone();
+        }
+        view.copyTo(destination);
+        return destination;
+    }
+
+    /**
+     * Whether a frame and a Mat point at the same pixels, i.e. the conversion between them did not copy
+     */
+    public static boolean sharesBuffer(Frame frame, Mat mat) {
+        if (frame == null || frame.image == null || frame.image.length == 0 || mat == null || mat.isNull()) {
+            return false;
+        }
+        return new Pointer(frame.image[0]).address() == mat.data().address();
+    }
+}
@@ -0,0 +1,94 @@
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import static org.bytedeco.opencv.global.opencv_core.*;
+
+/**
+ * Checks which FrameBridge conversions are zero-copy and measures the per-frame cost against
+ * a new converter per call (the old VideoProcessor behaviour) and a deep copy, at 720p, 1080p and 4K.
+ *
+ * Usage: java FrameBridgeBenchmark [iterations]
+ */
+public class FrameBridgeBenchmark {
+    private static final int[][] RESOLUTIONS = { { 1280, 720 }, { 1920, 1080 }, { 3840, 2160 } };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.println("Frame <-> Mat Bridge Benchmark");
+        System.out.println("==============================");
+        System.out.println("Iterations per measurement: " + iterations);
+        System.out.println();
+
+        boolean allPassed = true;
+        for (int[] resolution : RESOLUTIONS) {
+            allPassed &= run(resolution[0], resolution[1], iterations);
+        }
+
+        System.out.println(allPassed ? "✓ All zero-copy checks passed" : "✗ Some zero-copy checks failed");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(int width, int height, int iterations) {
+        System.out.println(width + "x" + height + ":");
+        Mat mat = new Mat(height, width, CV_8UC3);
+        randu(mat, new Mat(1, 1, CV_64F, new Scalar(0)), new Mat(1, 1, CV_64F, new Scalar(255)));
+
+        // Zero-copy checks
+        Frame frame = FrameBridge.toFrame(mat);
+        boolean passed = check("Mat -> Frame shares the Mat's data", FrameBridge.sharesBuffer(frame, mat));
+
+        Mat roundTrip = FrameBridge.toMat(frame);
+        passed &= check("Frame -> Mat shares the Frame's buffer", FrameBridge.sharesBuffer(frame, roundTrip));
+
+        Mat view = new Mat(mat, new Rect(width / 4, height / 4, width / 2, height / 2));
+        passed &= check("ROI view -> Frame shares the view's data",
+                        FrameBridge.sharesBuffer(FrameBridge.toFrame(view), view));
+
+        Mat copy = FrameBridge.copyToMat(frame, null);
+        passed &= check("copyToMat copies", !FrameBridge.sharesBuffer(frame, copy)
+                        && norm(mat, copy, NORM_INF, new Mat()) == 0);
+
+        // Timings
+        double perCall = time(iterations, () -> new OpenCVFrameConverter.ToMat().convert(mat));
+        double bridged = time(iterations, () -> FrameBridge.toFrame(mat));
+        double deepCopy = time(iterations, () -> {
+            Mat cloned = mat.clone();
+            new OpenCVFrameConverter.ToMat().convert(cloned);
+            cloned.release();
+        });
+
+        System.out.println(String.format("  Mat -> Frame: new converter %.3f ms, bridge %.3f ms, copy + convert %.3f ms",
+                                         perCall, bridged, deepCopy));
+        System.out.println(String.format("  Saving per frame: %.3f ms vs new converter, %.3f ms vs copying",
+                                         perCall - bridged, deepCopy - bridged));
+        System.out.println();
+
+        copy.release();
+        mat.release();
+        return passed;
+    }
+
+    private static boolean check(String name, boolean passed) {
+        System.out.println("  " + (passed ? "✓ " : "✗ ") + name);
+        return passed;
+    }
+
+    /**
+     * Average milliseconds per call after a warm-up
+     */
+    private static double time(int iterations, Runnable conversion) {
+        for (int i = 0; i < Math.min(20, iterations); i++) {
+            conversion.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            conversion.run();
+        }
+        return (System.nanoTime() - start) / 1000000.0 / iterations;
+    }
+}
@@ -0,0 +1,138 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of native frame buffers keyed by (rows, cols, type).
+ * Transitions and decoders borrow buffers with acquire() and sinks hand them back with recycle()
+ * once the recorder has consumed them, so steady-state rendering reuses the same native memory
+ * instead of allocating a new Mat per frame. Idle buffers beyond maxPooledBytes are freed.
+ */
+public class FramePool {
+    public static final long DEFAULT_MAX_POOLED_BYTES = 256L * 1024 * 1024;
+
+    private static final FramePool SHARED = new FramePool(DEFAULT_MAX_POOLED_BYTES);
+
+    private final Map<Long, ArrayDeque<Mat>> idle = new HashMap<>();
+    private long maxPooledBytes;
+    private long pooledBytes = 0;
+    private long peakPooledBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private MatLeakTracer tracer = null;
+
+    public FramePool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Process-wide pool used by transitions that are not attached to an engine
+     */
+    public static FramePool getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Borrow a buffer. Its contents are undefined.
+     */
+    public synchronized Mat acquire(int rows, int cols, int type) {
+        ArrayDeque<Mat> buffers = idle.get(key(rows, cols, type));
+        if (buffers != null && !buffers.isEmpty()) {
+            Mat buffer = buffers.pollLast();
+            pooledBytes -= sizeOf(buffer);
+            hits++;
+            return traced(buffer);
+        }
+        misses++;
+        // Pooled buffers outlive any per-frame allocation scope
+        return traced(FrameScope.escape(new Mat(rows, cols, type)));
+    }
+
+    /**
+     * Borrow a buffer cleared to zero
+     */
+    public Mat acquireBlank(int rows, int cols, int type) {
+        Mat buffer = acquire(rows, cols, type);
+        buffer.put(new Scalar(0, 0, 0, 0));
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool. Views into other Mats are released instead of pooled,
+     * since their memory belongs to the parent.
+     */
+    public synchronized void recycle(Mat buffer) {
+        if (buffer == null || buffer.isNull()) {
+            return;
+        }
+        if (tracer != null) {
+            tracer.forget(buffer);
+        }
+        long size = sizeOf(buffer);
+        if (buffer.empty() || buffer.isSubmatrix() || !buffer.isContinuous()
+            || pooledBytes + size > maxPooledBytes) {
+            buffer.release();
+            return;
+        }
+        idle.computeIfAbsent(key(buffer.rows(), buffer.cols(), buffer.type()), k -> new ArrayDeque<>())
+            .addLast(FrameScope.escape(buffer));
+        pooledBytes += size;
+        peakPooledBytes = Math.max(peakPooledBytes, pooledBytes);
+    }
+
+    /**
+     * Free every idle buffer
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Mat> buffers : idle.values()) {
+            for (Mat buffer : buffers) {
+                buffer.release();
+            }
+        }
+        idle.clear();
+        pooledBytes = 0;
+    }
+
+    public synchronized void setMaxPooledBytes(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Report every handed out buffer to a leak tracer (null to disable)
+     */
+    public synchronized void setTracer(MatLeakTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    private Mat traced(Mat buffer) {
+        if (tracer != null) {
+            tracer.track(buffer);
+        }
+        return buffer;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getPooledBytes() { return pooledBytes; }
+    public synchronized long getPeakPooledBytes() { return peakPooledBytes; }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized String getReport() {
+        return String.format("Frame pool: %d hits, %d misses (%.1f%% reused), peak pooled %.1f MB",
+                             hits, misses, getHitRate() * 100.0, peakPooledBytes / (1024.0 * 1024.0));
+    }
+
+    private static long key(int rows, int cols, int type) {
+        return ((long) rows << 40) | ((long) cols << 16) | (type & 0xFFFF);
+    }
+
+    private static long sizeOf(Mat buffer) {
+        return buffer.total() * buffer.elemSize();
+    }
+}
@@ -0,0 +1,43 @@
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.PointerScope;
+
+/**
+ * Allocation scope for rendering a single frame.
+ *
+ * Every JavaCPP object created on the current thread while the scope is open (Mat headers, ROI views,
+ * Rects, Scalars, temporaries inside transitions) is deallocated when the scope closes, instead of
+ * whenever the garbage collector gets to it. Objects that must outlive the frame, such as the rendered
+ * output or buffers handed to a FramePool, are passed to escape() first.
+ *
+ * Scopes are per thread, so parallel renderers open one inside each task.
+ */
+public class FrameScope implements AutoCloseable {
+    private final PointerScope scope;
+
+    public FrameScope() {
+        this.scope = new PointerScope();
+    }
+
+    /**
+     * Keep an object alive after the innermost open scope closes. No-op outside a scope.
+     * @return The same object
+     */
+    public static <P extends Pointer> P escape(P pointer) {
+        if (pointer != null && PointerScope.getInnerScope() != null) {
+            pointer.retainReference();
+        }
+        return pointer;
+    }
+
+    /**
+     * Open a scope when enabled, otherwise return null (which try-with-resources accepts)
+     */
+    public static FrameScope openIf(boolean enabled) {
+        return enabled ? new FrameScope() : null;
+    }
+
+    @Override
+    public void close() {
+        scope.close();
+    }
+}
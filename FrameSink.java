@@ -0,0 +1,19 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Destination for rendered output frames
+ */
+public interface FrameSink {
+
+    /**
+     * Write an output frame. The sink takes ownership of the frame.
+     */
+    void write(Mat frame) throws Exception;
+
+    /**
+     * Hand back a frame that will not be written, so its buffer can be freed or reused
+     */
+    default void recycle(Mat frame) {
+        frame.release();
+    }
+}
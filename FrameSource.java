@@ -0,0 +1,27 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequential source of decoded frames for one input clip
+ */
+public interface FrameSource extends AutoCloseable {
+
+    /**
+     * Get the next frame of the clip
+     * @return The next frame, or null when the clip is exhausted
+     */
+    Mat nextFrame() throws Exception;
+
+    /**
+     * Read up to count frames from the current position
+     */
+    default List<Mat> readFrames(int count) throws Exception {
+        List<Mat> frames = new ArrayList<>();
+        Mat frame;
+        while (frames.size() < count && (frame = nextFrame()) != null) {
+            frames.add(frame);
+        }
+        return frames;
+    }
+}
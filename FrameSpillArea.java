@@ -0,0 +1,255 @@
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Disk spill tier for decoded clips that do not fit in memory.
+ *
+ * Each clip gets a scratch file in the spill directory. Raw frames are copied into memory-mapped
+ * regions of that file, and get() returns Mat headers that point straight into the mapping. Reading
+ * any frame of a long clip therefore costs page-cache reads instead of a re-decode, and the OS decides
+ * which pages stay resident. Total spilled bytes across all clips are bounded by a disk quota.
+ * close() unmaps and deletes the scratch files; a mapped file cannot be deleted on Windows.
+ */
+public class FrameSpillArea implements AutoCloseable {
+    // Frames are mapped in regions well below the 2 GB limit of a single mapping
+    private static final long REGION_BYTES = 256L * 1024 * 1024;
+
+    // Without explicit unmapping (Java 8), deletes are retried while the collector unmaps regions
+    private static final int DELETE_ATTEMPTS = 5;
+    private static final long DELETE_RETRY_MS = 100;
+
+    private final File directory;
+    private final long quotaBytes;
+    private final List<SpilledClip> clips = new ArrayList<>();
+    private long spilledBytes = 0;
+    private long peakSpilledBytes = 0;
+
+    /**
+     * @param parent Directory to create the scratch directory in, or null for the system temp directory
+     * @param quotaBytes Maximum bytes spilled across all clips
+     */
+    public FrameSpillArea(File parent, long quotaBytes) throws IOException {
+        this.directory = parent != null
+            ? Files.createTempDirectory(parent.toPath(), "frame_spill").toFile()
+            : Files.createTempDirectory("frame_spill").toFile();
+        this.directory.deleteOnExit();
+        this.quotaBytes = quotaBytes;
+    }
+
+    /**
+     * Create an empty spilled clip whose frames all have the given shape
+     */
+    public synchronized SpilledClip newClip(int rows, int cols, int type) throws IOException {
+        File file = new File(directory, String.format("clip_%03d.raw", clips.size()));
+        file.deleteOnExit();
+        SpilledClip clip = new SpilledClip(file, rows, cols, type);
+        clips.add(clip);
+        return clip;
+    }
+
+    private synchronized boolean reserve(long bytes) {
+        if (spilledBytes + bytes > quotaBytes) {
+            return false;
+        }
+        spilledBytes += bytes;
+        peakSpilledBytes = Math.max(peakSpilledBytes, spilledBytes);
+        return true;
+    }
+
+    private synchronized void unreserve(long bytes) {
+        spilledBytes -= bytes;
+    }
+
+    /**
+     * Close every clip and delete the scratch directory
+     */
+    @Override
+    public void close() {
+        List<SpilledClip> open;
+        synchronized (this) {
+            open = new ArrayList<>(clips);
+            clips.clear();
+        }
+        for (SpilledClip clip : open) {
+            clip.close();
+        }
+        if (!delete(directory)) {
+            System.err.println("Warning: Could not delete spill directory " + directory);
+        }
+    }
+
+    /**
+     * Unmap a region now instead of when it is collected. Returns false where the JDK offers no way to
+     * (before Java 9), leaving it to the collector.
+     */
+    private static boolean unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Delete a file or empty directory, retrying after garbage collections while mappings are released
+     */
+    private static boolean delete(File file) {
+        for (int attempt = 0; attempt < DELETE_ATTEMPTS; attempt++) {
+            if (file.delete() || !file.exists()) {
+                return true;
+            }
+            System.gc();
+            try {
+                Thread.sleep(DELETE_RETRY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return file.delete() || !file.exists();
+    }
+
+    public File getDirectory() { return directory; }
+    public long getQuotaBytes() { return quotaBytes; }
+    public synchronized long getSpilledBytes() { return spilledBytes; }
+    public synchronized long getPeakSpilledBytes() { return peakSpilledBytes; }
+
+    public synchronized String getReport() {
+        return String.format("Spill: peak %.1f MB of %.1f MB quota in %s",
+                             peakSpilledBytes / (1024.0 * 1024.0), quotaBytes / (1024.0 * 1024.0), directory);
+    }
+
+    /**
+     * Append-only frame list backed by a memory-mapped scratch file.
+     * Returned Mats are views into the mapping: they are owned by the clip and valid until it is closed.
+     */
+    public class SpilledClip extends AbstractList<Mat> implements AutoCloseable {
+        private final File file;
+        private final RandomAccessFile raf;
+        private final FileChannel channel;
+        private final int rows;
+        private final int cols;
+        private final int type;
+        private final long frameBytes;
+        private final int framesPerRegion;
+
+        // Mappings are kept referenced so the views stay valid until close() unmaps them
+        private final List<MappedByteBuffer> regions = new ArrayList<>();
+        private final List<Mat> views = new ArrayList<>();
+        private long reservedBytes = 0;
+        private boolean closed = false;
+
+        private SpilledClip(File file, int rows, int cols, int type) throws IOException {
+            this.file = file;
+            this.raf = new RandomAccessFile(file, "rw");
+            this.channel = raf.getChannel();
+            this.rows = rows;
+            this.cols = cols;
+            this.type = type;
+            try (Mat probe = new Mat(1, 1, type)) {
+                this.frameBytes = (long) rows * cols * probe.elemSize();
+            }
+            this.framesPerRegion = (int) Math.max(1, REGION_BYTES / frameBytes);
+        }
+
+        /**
+         * Copy a frame into the scratch file
+         * @return false when the spill quota is exhausted and the frame was not stored
+         */
+        @Override
+        public synchronized boolean add(Mat frame) {
+            if (frame.rows() != rows || frame.cols() != cols || frame.type() != type) {
+                throw new IllegalArgumentException("Frame " + frame.cols() + "x" + frame.rows()
+                    + " does not match spilled clip " + cols + "x" + rows);
+            }
+            if (closed || !reserve(frameBytes)) {
+                return false;
+            }
+            reservedBytes += frameBytes;
+
+            int index = views.size();
+            int region = index / framesPerRegion;
+            try {
+                if (region == regions.size()) {
+                    long regionStart = (long) region * framesPerRegion * frameBytes;
+                    regions.add(channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                                            framesPerRegion * frameBytes));
+                }
+            } catch (IOException e) {
+                reservedBytes -= frameBytes;
+                unreserve(frameBytes);
+                throw new IllegalStateException("Could not map spill file " + file + ": " + e.getMessage(), e);
+            }
+
+            MappedByteBuffer mapping = regions.get(region);
+            BytePointer slot = new BytePointer(mapping)
+                .position((index % framesPerRegion) * frameBytes).capacity(frameBytes);
+            Mat view = new Mat(rows, cols, type, slot);
+            frame.copyTo(view);
+            views.add(view);
+            return true;
+        }
+
+        /**
+         * View of a spilled frame. No data is copied; pages are read from the page cache on access.
+         */
+        @Override
+        public synchronized Mat get(int index) {
+            return views.get(index);
+        }
+
+        @Override
+        public synchronized int size() {
+            return views.size();
+        }
+
+        /**
+         * Release the views, give the bytes back to the quota and delete the scratch file
+         */
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Mat view : views) {
+                view.release();
+            }
+            views.clear();
+            // The views were the only users of the mappings, so they can be unmapped now
+            for (MappedByteBuffer region : regions) {
+                unmap(region);
+            }
+            regions.clear();
+            try {
+                channel.close();
+                raf.close();
+            } catch (IOException e) {
+                System.err.println("Warning: Could not close spill file " + file + ": " + e.getMessage());
+            }
+            unreserve(reservedBytes);
+            reservedBytes = 0;
+            if (!delete(file)) {
+                System.err.println("Warning: Could not delete spill file " + file);
+            }
+        }
+    }
+}
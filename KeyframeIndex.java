@@ -0,0 +1,259 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avutil.AVRational;
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+import static org.bytedeco.ffmpeg.global.avutil.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keyframe positions and stream parameters of an input video,
+ * built from a packet scan without decoding any frames.
+ *
+ * Indexes are persisted as a small binary sidecar next to the video (video.mp4.kfidx), keyed by
+ * file size, modification time and a hash of the first and last 64 KB. Later jobs on the same
+ * file load the sidecar instead of opening and scanning the container again.
+ */
+public class KeyframeIndex {
+    private final String videoPath;
+    private int videoCodec;
+    private int width;
+    private int height;
+    private double frameRate;
+    private int pixelFormat;
+    private int profile;
+    private long packetCount; // video packets; one per frame for the H.264 streams that are remuxed
+    private final List<Long> keyframeTimestamps = new ArrayList<>(); // microseconds from stream start
+    private final List<Long> keyframeFrames = new ArrayList<>();     // frame indices
+    private final List<Long> keyframeOffsets = new ArrayList<>();    // byte positions in the file, -1 if unknown
+
+    public static final String SIDECAR_EXTENSION = ".kfidx";
+    private static final int SIDECAR_MAGIC = 0x4B464958; // "KFIX"
+    private static final int SIDECAR_VERSION = 3;
+    private static final int HASH_SAMPLE_BYTES = 64 * 1024;
+
+    private KeyframeIndex(String videoPath) {
+        this.videoPath = videoPath;
+    }
+
+    /**
+     * Get the index for a video, loading its sidecar when it is still valid and
+     * scanning (then saving a new sidecar) otherwise
+     */
+    public static KeyframeIndex forVideo(String videoPath) throws Exception {
+        File video = new File(videoPath);
+        File sidecar = new File(videoPath + SIDECAR_EXTENSION);
+        byte[] contentHash = hashContent(video);
+
+        if (sidecar.exists()) {
+            try {
+                KeyframeIndex cached = readSidecar(videoPath, sidecar, video.length(), video.lastModified(), contentHash);
+                if (cached != null) {
+                    return cached;
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Ignoring unreadable keyframe index " + sidecar + ": " + e.getMessage());
+            }
+        }
+
+        KeyframeIndex index = scan(videoPath);
+        try {
+            index.writeSidecar(sidecar, video.length(), video.lastModified(), contentHash);
+        } catch (IOException e) {
+            // Read-only input folders still work, they just rescan next time
+            System.err.println("Warning: Could not save keyframe index " + sidecar + ": " + e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Scan the packets of a video to locate its keyframes
+     */
+    public static KeyframeIndex scan(String videoPath) throws Exception {
+        KeyframeIndex index = new KeyframeIndex(videoPath);
+        FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoPath);
+        grabber.start();
+
+        try {
+            index.videoCodec = grabber.getVideoCodec();
+            index.width = grabber.getImageWidth();
+            index.height = grabber.getImageHeight();
+            index.frameRate = grabber.getFrameRate();
+
+            // The stream's own format and profile; grabber.getPixelFormat() is the converter's output format
+            int videoStream = grabber.getVideoStream();
+            index.pixelFormat = grabber.getFormatContext().streams(videoStream).codecpar().format();
+            index.profile = grabber.getFormatContext().streams(videoStream).codecpar().profile();
+            AVRational timeBase = grabber.getFormatContext().streams(videoStream).time_base();
+            double microsPerTick = av_q2d(timeBase) * 1000000.0;
+
+            List<Long> keyframePts = new ArrayList<>();
+            List<Long> keyframePositions = new ArrayList<>();
+            long firstPts = Long.MAX_VALUE;
+            long packets = 0;
+
+            AVPacket packet;
+            while ((packet = grabber.grabPacket()) != null) {
+                if (packet.stream_index() != videoStream) {
+                    continue;
+                }
+                packets++;
+                long pts = packet.pts() != AV_NOPTS_VALUE ? packet.pts() : packet.dts();
+                firstPts = Math.min(firstPts, pts);
+                if ((packet.flags() & AV_PKT_FLAG_KEY) != 0) {
+                    keyframePts.add(pts);
+                    keyframePositions.add(packet.pos());
+                }
+            }
+
+            index.packetCount = packets;
+            for (int i = 0; i < keyframePts.size(); i++) {
+                long micros = Math.round((keyframePts.get(i) - firstPts) * microsPerTick);
+                index.keyframeTimestamps.add(micros);
+                index.keyframeFrames.add(Math.round(micros * index.frameRate / 1000000.0));
+                index.keyframeOffsets.add(keyframePositions.get(i));
+            }
+        } finally {
+            grabber.stop();
+        }
+
+        return index;
+    }
+
+    /**
+     * Hash the first and last 64 KB of a file. Together with size and mtime this catches
+     * replaced or rewritten files without reading the whole video.
+     */
+    static byte[] hashContent(File file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            byte[] buffer = new byte[(int) Math.min(HASH_SAMPLE_BYTES, length)];
+
+            raf.readFully(buffer);
+            digest.update(buffer);
+
+            if (length > HASH_SAMPLE_BYTES) {
+                raf.seek(Math.max(HASH_SAMPLE_BYTES, length - HASH_SAMPLE_BYTES));
+                int read = raf.read(buffer);
+                if (read > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private void writeSidecar(File sidecar, long fileSize, long modified, byte[] contentHash) throws IOException {
+        // A temp file per writer, so concurrent jobs indexing the same video never share one
+        File temp = File.createTempFile(sidecar.getName(), ".tmp", sidecar.getAbsoluteFile().getParentFile());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(SIDECAR_MAGIC);
+            out.writeInt(SIDECAR_VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(modified);
+            out.writeShort(contentHash.length);
+            out.write(contentHash);
+
+            out.writeInt(videoCodec);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeDouble(frameRate);
+            out.writeInt(pixelFormat);
+            out.writeInt(profile);
+            out.writeLong(packetCount);
+
+            out.writeInt(keyframeFrames.size());
+            for (int i = 0; i < keyframeFrames.size(); i++) {
+                out.writeLong(keyframeTimestamps.get(i));
+                out.writeLong(keyframeFrames.get(i));
+                out.writeLong(keyframeOffsets.get(i));
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        // Replace atomically so concurrent jobs never see a half-written index
+        try {
+            Files.move(temp.toPath(), sidecar.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Read a sidecar if it matches the current file
+     * @return The index, or null when the sidecar is stale
+     */
+    private static KeyframeIndex readSidecar(String videoPath, File sidecar, long fileSize, long modified,
+                                             byte[] contentHash) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar)))) {
+            if (in.readInt() != SIDECAR_MAGIC || in.readInt() != SIDECAR_VERSION) {
+                return null;
+            }
+            if (in.readLong() != fileSize || in.readLong() != modified) {
+                return null;
+            }
+            byte[] storedHash = new byte[in.readUnsignedShort()];
+            in.readFully(storedHash);
+            if (!Arrays.equals(storedHash, contentHash)) {
+                return null;
+            }
+
+            KeyframeIndex index = new KeyframeIndex(videoPath);
+            index.videoCodec = in.readInt();
+            index.width = in.readInt();
+            index.height = in.readInt();
+            index.frameRate = in.readDouble();
+            index.pixelFormat = in.readInt();
+            index.profile = in.readInt();
+            index.packetCount = in.readLong();
+
+            int keyframes = in.readInt();
+            for (int i = 0; i < keyframes; i++) {
+                index.keyframeTimestamps.add(in.readLong());
+                index.keyframeFrames.add(in.readLong());
+                index.keyframeOffsets.add(in.readLong());
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Find the last keyframe at or before the given frame index
+     * @return Position in the keyframe list, or -1 if there is none
+     */
+    public int findKeyframeAtOrBefore(long frameIndex) {
+        int found = -1;
+        for (int i = 0; i < keyframeFrames.size(); i++) {
+            if (keyframeFrames.get(i) <= frameIndex) {
+                found = i;
+            } else {
+                break;
+            }
+        }
+        return found;
+    }
+
+    public String getVideoPath() { return videoPath; }
+    public int getVideoCodec() { return videoCodec; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public double getFrameRate() { return frameRate; }
+    public int getPixelFormat() { return pixelFormat; }
+    public int getProfile() { return profile; }
+    public long getPacketCount() { return packetCount; }
+    public int getKeyframeCount() { return keyframeFrames.size(); }
+    public long getKeyframeTimestamp(int i) { return keyframeTimestamps.get(i); }
+    public long getKeyframeFrame(int i) { return keyframeFrames.get(i); }
+    public long getKeyframeOffset(int i) { return keyframeOffsets.get(i); }
+}
@@ -0,0 +1,97 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+/**
+ * Luma-matte transition: a grayscale matte decides where the incoming frame shows through first.
+ *
+ * Single-image mattes sweep a threshold from black to white over the transition, so dark areas of the
+ * matte reveal first. Matte sequences are animated instead: the frame at the current progress is
+ * thresholded at mid-grey. Without a matte the outgoing frame's own luminance is used (a luma fade).
+ *
+ * Each frame costs one LUT lookup (threshold plus softness band, in 8 bits) and one fused select.
+ * Mattes not authored at the frame size are scaled once for single images, and per frame for sequences.
+ */
+public class LumaMatteTransition extends BaseTransition {
+    public static final double DEFAULT_SOFTNESS = 0.1;
+
+    private final MatteLibrary.Matte matte;
+    private final double softness;
+    private Mat scaledMatte = null;
+
+    /**
+     * @param matte Matte to follow, or null to use the outgoing frame's luminance
+     * @param softness Width of the soft edge as a fraction of the grey range (0-1)
+     */
+    public LumaMatteTransition(int width, int height, int transitionFrames, MatteLibrary.Matte matte, double softness) {
+        super(width, height, transitionFrames);
+        this.matte = matte;
+        this.softness = Math.max(0.0, Math.min(1.0, softness));
+    }
+
+    @Override
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
+        Mat lut = framePool.acquire(1, 256, CV_8UC1);
+        Mat scratch = framePool.acquire(height, width, CV_8UC1);
+        Mat mask = framePool.acquire(height, width, CV_8UC1);
+        try {
+            boolean animated = matte != null && matte.isSequence();
+            fillLut(lut, animated ? 0.5 : progress);
+            LUT(matteFor(frame1, progress, scratch), lut, mask);
+            PixelKernels.blendWithMask(frame2, frame1, mask, destination);
+        } finally {
+            recycle(lut, scratch, mask);
+        }
+    }
+
+    /**
+     * Matte for this frame at the frame size, using scratch when it has to be computed
+     */
+    private Mat matteFor(Mat frame1, double progress, Mat scratch) {
+        if (matte == null) {
+            if (frame1.channels() == 1) {
+                return frame1;
+            }
+            cvtColor(frame1, scratch, COLOR_BGR2GRAY);
+            return scratch;
+        }
+        if (matte.isSequence()) {
+            Mat frame = matte.frameAt(progress);
+            if (matte.getWidth() == width && matte.getHeight() == height) {
+                return frame;
+            }
+            resize(frame, scratch, new Size(width, height), 0, 0, INTER_AREA);
+            return scratch;
+        }
+        return getScaledMatte();
+    }
+
+    private synchronized Mat getScaledMatte() {
+        if (scaledMatte == null) {
+            Mat frame = matte.frame(0);
+            if (matte.getWidth() == width && matte.getHeight() == height) {
+                scaledMatte = FrameScope.escape(frame);
+            } else {
+                scaledMatte = FrameScope.escape(new Mat());
+                resize(frame, scaledMatte, new Size(width, height), 0, 0, INTER_AREA);
+            }
+        }
+        return scaledMatte;
+    }
+
+    /**
+     * lut[v] = 255 * (threshold - v) / band, saturated, where the threshold runs from fully below
+     * black at 0 to fully above white at 1
+     */
+    private void fillLut(Mat lut, double level) {
+        double band = Math.max(1.0, softness * 255);
+        double threshold = level * (255 + band);
+        byte[] values = new byte[256];
+        for (int v = 0; v < 256; v++) {
+            long weight = Math.round(255 * (threshold - v) / band);
+            values[v] = (byte) Math.max(0, Math.min(255, weight));
+        }
+        lut.data().put(values);
+    }
+}
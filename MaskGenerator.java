@@ -151,44 +151,10 @@ public class MaskGenerator {
      * Blend two frames using mask
      */
     public Mat blendWithMask(Mat frame1, Mat frame2, Mat mask, double alpha) {
+        // Fused single pass on the selected pixel-kernel backend
         Mat result = new Mat();
-        Mat normalizedMask = new Mat();
-        
-        // Normalize mask to 0-1 range
-        mask.convertTo(normalizedMask, CV_32F, 1.0/255.0);
-        
-        // Convert frames to float
-        Mat f1 = new Mat();
-        Mat f2 = new Mat();
-        frame1.convertTo(f1, CV_32F);
-        frame2.convertTo(f2, CV_32F);
-        
-        // Apply mask blending
-        Mat maskedF1 = new Mat();
-        Mat maskedF2 = new Mat();
-        
-        multiply(f1, normalizedMask, maskedF1);
-        
-        Mat invertedMask = new Mat();
-        subtract(new Scalar(1.0), normalizedMask, invertedMask);
-        multiply(f2, invertedMask, maskedF2);
-        
-        add(maskedF1, maskedF2, result);
-        
-        // Convert back to 8-bit
-        Mat finalResult = new Mat();
-        result.convertTo(finalResult, CV_8UC3);
-        
-        // Clean up
-        normalizedMask.release();
-        f1.release();
-        f2.release();
-        maskedF1.release();
-        maskedF2.release();
-        invertedMask.release();
-        result.release();
-        
-        return finalResult;
+        PixelKernels.blendWithMask(frame1, frame2, mask, result);
+        return result;
     }
     
     public boolean isInitialized() {
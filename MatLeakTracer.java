@@ -0,0 +1,183 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in tracer for native frame buffers that are never released.
+ *
+ * Allocations are reported by the FramePool (and anything else that calls track()) together with the
+ * call site that asked for them. A buffer counts as released once it is returned to the pool, released
+ * or deallocated. Buffers are held weakly, keyed by native address, so tracing never keeps one alive:
+ * a buffer the garbage collector reclaims counts as deallocated. checkpoint() reports buffers allocated since the previous checkpoint that are still
+ * live, and finishJob() reports everything still live, grouped by call site.
+ *
+ * Only every sampleInterval-th allocation captures a stack trace, so the overhead can be tuned down
+ * for canary renders.
+ */
+public class MatLeakTracer {
+    // Frames that only pass a buffer through and should not be reported as its call site
+    private static final String[] SKIPPED_CLASSES = {
+        "java.", "MatLeakTracer", "FramePool", "FrameScope", "BaseTransition"
+    };
+
+    private final int sampleInterval;
+    private final Map<Long, Allocation> live = new HashMap<>();
+    private final ReferenceQueue<Mat> collected = new ReferenceQueue<>();
+    private long allocationCount = 0;
+    private long trackedCount = 0;
+    private long generation = 0;
+
+    public MatLeakTracer() {
+        this(1);
+    }
+
+    /**
+     * @param sampleInterval Trace every n-th allocation (1 = all)
+     */
+    public MatLeakTracer(int sampleInterval) {
+        this.sampleInterval = Math.max(1, sampleInterval);
+    }
+
+    /**
+     * Record a newly handed out buffer and where it was requested
+     */
+    public void track(Mat mat) {
+        if (mat == null) {
+            return;
+        }
+        synchronized (this) {
+            if (allocationCount++ % sampleInterval != 0) {
+                return;
+            }
+        }
+        Allocation allocation = new Allocation(mat, collected, callSite(), mat.total() * mat.elemSize());
+        synchronized (this) {
+            allocation.generation = generation;
+            live.put(allocation.address, allocation);
+            trackedCount++;
+        }
+    }
+
+    /**
+     * Stop tracking a buffer whose ownership went back to the pool
+     */
+    public synchronized void forget(Mat mat) {
+        live.remove(mat.address());
+    }
+
+    /**
+     * Report buffers allocated since the previous checkpoint that are still live
+     * @param label Name of the unit of work that just finished, e.g. a transition
+     */
+    public synchronized String checkpoint(String label) {
+        pruneReleased();
+        List<Allocation> recent = new ArrayList<>();
+        for (Allocation allocation : live.values()) {
+            if (allocation.generation == generation) {
+                recent.add(allocation);
+            }
+        }
+        generation++;
+        return format("Leak check after " + label, recent);
+    }
+
+    /**
+     * Report every tracked buffer that is still live and reset the tracer
+     */
+    public synchronized String finishJob() {
+        pruneReleased();
+        String report = format("Leak report", new ArrayList<>(live.values()))
+            + String.format("%n  %d allocations, %d traced", allocationCount, trackedCount);
+        live.clear();
+        allocationCount = 0;
+        trackedCount = 0;
+        generation = 0;
+        return report;
+    }
+
+    public synchronized int getLiveCount() {
+        pruneReleased();
+        return live.size();
+    }
+
+    private void pruneReleased() {
+        Reference<? extends Mat> reference;
+        while ((reference = collected.poll()) != null) {
+            // The address may already belong to a newer buffer
+            Allocation allocation = (Allocation) reference;
+            live.remove(allocation.address, allocation);
+        }
+        live.values().removeIf(allocation -> {
+            Mat mat = allocation.get();
+            return mat == null || mat.isNull() || mat.empty();
+        });
+    }
+
+    private static String format(String title, List<Allocation> allocations) {
+        if (allocations.isEmpty()) {
+            return title + ": no unreleased frames";
+        }
+
+        Map<String, long[]> bySite = new LinkedHashMap<>();
+        long totalBytes = 0;
+        for (Allocation allocation : allocations) {
+            long[] totals = bySite.computeIfAbsent(allocation.site, k -> new long[2]);
+            totals[0]++;
+            totals[1] += allocation.bytes;
+            totalBytes += allocation.bytes;
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%s: %d unreleased frames (%.1f MB)",
+                                                               title, allocations.size(),
+                                                               totalBytes / (1024.0 * 1024.0)));
+        bySite.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+            .forEach(entry -> report.append(String.format("%n  %4d x %8.1f KB  %s", entry.getValue()[0],
+                                                          entry.getValue()[1] / 1024.0 / entry.getValue()[0],
+                                                          entry.getKey())));
+        return report.toString();
+    }
+
+    /**
+     * First stack frame outside the allocation plumbing
+     */
+    private static String callSite() {
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        for (int i = 1; i < stack.length; i++) {
+            if (!isSkipped(stack[i].getClassName())) {
+                return stack[i].toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static boolean isSkipped(String className) {
+        for (String prefix : SKIPPED_CLASSES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Allocation extends WeakReference<Mat> {
+        final long address;
+        final String site;
+        final long bytes;
+        long generation;
+
+        Allocation(Mat mat, ReferenceQueue<Mat> queue, String site, long bytes) {
+            super(mat, queue);
+            this.address = mat.address();
+            this.site = site;
+            this.bytes = bytes;
+        }
+    }
+}
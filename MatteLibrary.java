@@ -0,0 +1,231 @@
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.IMREAD_GRAYSCALE;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.imread;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Directory of grayscale mattes for luma-matte transitions, memory-mapped from a compact binary format.
+ *
+ * A .matte file is a 20-byte header (magic "LMAT", version, width, height, frame count, as big-endian
+ * ints) followed by the raw 8-bit frames. Matte frames are Mat headers over the mapping, so the OS pages
+ * them in on demand and nothing is decoded per transition frame.
+ *
+ * New shapes are added by dropping files into the directory:
+ * - name.matte is used as-is
+ * - name.png / .jpg / .jpeg / .bmp is converted to name.matte on first load
+ * - a subdirectory of images becomes a matte sequence named after the directory, frames in file name order
+ */
+public class MatteLibrary {
+    private static final int MAGIC = 0x4C4D4154; // "LMAT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final String EXTENSION = ".matte";
+    private static final List<String> IMAGE_EXTENSIONS = Arrays.asList(".png", ".jpg", ".jpeg", ".bmp");
+
+    private final File directory;
+    private final Map<String, Matte> mattes = new TreeMap<>();
+
+    /**
+     * Load every matte in the directory, converting dropped-in images first
+     */
+    public MatteLibrary(File directory) throws IOException {
+        if (!directory.isDirectory()) {
+            throw new IOException("Matte directory not found: " + directory);
+        }
+        this.directory = directory;
+
+        File[] entries = directory.listFiles();
+        Arrays.sort(entries);
+
+        // Convert dropped-in images and image sequences that have no up-to-date .matte yet
+        for (File entry : entries) {
+            if (!entry.isDirectory() && !isImage(entry)) {
+                continue;
+            }
+            File matteFile = new File(directory, baseName(entry) + EXTENSION);
+            if (matteFile.exists() && matteFile.lastModified() >= entry.lastModified()) {
+                continue;
+            }
+            List<File> images = entry.isDirectory() ? listImages(entry) : Collections.singletonList(entry);
+            if (!images.isEmpty()) {
+                convert(images, matteFile);
+                System.out.println("Converted matte " + entry.getName() + " -> " + matteFile.getName());
+            }
+        }
+
+        for (File entry : directory.listFiles()) {
+            if (entry.isFile() && entry.getName().endsWith(EXTENSION)) {
+                String name = baseName(entry);
+                mattes.put(name, map(name, entry));
+            }
+        }
+        System.out.println("Matte library: " + mattes.size() + " mattes in " + directory);
+    }
+
+    /**
+     * @return The named matte, or null when the library has none by that name
+     */
+    public Matte get(String name) {
+        return mattes.get(name);
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(mattes.keySet());
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Write grayscale frames (CV_8UC1, all the same size) as a .matte file
+     */
+    public static void write(List<Mat> frames, File file) throws IOException {
+        if (frames.isEmpty()) {
+            throw new IOException("A matte needs at least one frame");
+        }
+        int width = frames.get(0).cols();
+        int height = frames.get(0).rows();
+        byte[] row = new byte[width];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(frames.size());
+            for (Mat frame : frames) {
+                if (frame.cols() != width || frame.rows() != height || frame.type() != CV_8UC1) {
+                    throw new IOException("Matte frames must all be " + width + "x" + height + " grayscale");
+                }
+                for (int y = 0; y < height; y++) {
+                    frame.ptr(y).get(row);
+                    out.write(row);
+                }
+            }
+        }
+    }
+
+    private static void convert(List<File> images, File matteFile) throws IOException {
+        List<Mat> frames = new ArrayList<>();
+        try {
+            for (File image : images) {
+                Mat frame = imread(image.getAbsolutePath(), IMREAD_GRAYSCALE);
+                if (frame.empty()) {
+                    throw new IOException("Could not read matte image: " + image);
+                }
+                frames.add(frame);
+            }
+            write(frames, matteFile);
+        } finally {
+            for (Mat frame : frames) {
+                frame.release();
+            }
+        }
+    }
+
+    private static Matte map(String name, File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapping.capacity() < HEADER_BYTES || mapping.getInt(0) != MAGIC) {
+                throw new IOException("Not a matte file: " + file);
+            }
+            if (mapping.getInt(4) != VERSION) {
+                throw new IOException("Unsupported matte version " + mapping.getInt(4) + ": " + file);
+            }
+            int width = mapping.getInt(8);
+            int height = mapping.getInt(12);
+            int frameCount = mapping.getInt(16);
+            if ((long) width * height * frameCount + HEADER_BYTES > mapping.capacity() || frameCount < 1) {
+                throw new IOException("Truncated matte file: " + file);
+            }
+            return new Matte(name, mapping, width, height, frameCount);
+        }
+    }
+
+    private static List<File> listImages(File directory) {
+        List<File> images = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                if (isImage(file)) {
+                    images.add(file);
+                }
+            }
+        }
+        return images;
+    }
+
+    private static boolean isImage(File file) {
+        String name = file.getName().toLowerCase();
+        return file.isFile() && IMAGE_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static String baseName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return file.isDirectory() || dot <= 0 ? name : name.substring(0, dot);
+    }
+
+    /**
+     * One memory-mapped matte: a single image or a sequence of frames
+     */
+    public static class Matte {
+        private final String name;
+        private final ByteBuffer mapping;
+        private final int width;
+        private final int height;
+        private final int frameCount;
+
+        Matte(String name, ByteBuffer mapping, int width, int height, int frameCount) {
+            this.name = name;
+            this.mapping = mapping;
+            this.width = width;
+            this.height = height;
+            this.frameCount = frameCount;
+        }
+
+        /**
+         * Mat header over the mapped frame; no data is copied. Valid while the library is referenced.
+         */
+        public Mat frame(int index) {
+            long offset = HEADER_BYTES + (long) Math.max(0, Math.min(frameCount - 1, index)) * width * height;
+            BytePointer data = new BytePointer(mapping).position(offset);
+            return new Mat(height, width, CV_8UC1, data);
+        }
+
+        /**
+         * Frame for a point in the transition; single-image mattes always return their only frame
+         */
+        public Mat frameAt(double progress) {
+            return frame((int) Math.round(Math.max(0.0, Math.min(1.0, progress)) * (frameCount - 1)));
+        }
+
+        public boolean isSequence() {
+            return frameCount > 1;
+        }
+
+        public String getName() { return name; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public int getFrameCount() { return frameCount; }
+    }
+}
@@ -0,0 +1,213 @@
+import org.bytedeco.javacpp.Pointer;
+
+/**
+ * Enforces a native memory budget for a render job.
+ *
+ * Frame data lives off-heap (JavaCPP and OpenCV allocations), so the JVM heap limit never sees it.
+ * The governor estimates native usage from JavaCPP's tracked bytes, the process's physical memory
+ * minus the Java heap, and the frame pool's idle buffers. Usage is measured relative to the start of
+ * the job. The pipeline decode stage and the prefetcher call awaitCapacity() before allocating more
+ * frames and block while the job is over budget, until their consumers drain frames back under it;
+ * the wait only gives up after maxWaitMillis, as a guard against deadlock. Stages with nothing
+ * downstream to free memory for them call reclaimCapacity() instead, which never blocks. Idle pooled
+ * frames are freed once per over-budget episode. The peak usage per job is recorded so hosts can be
+ * packed with more jobs safely.
+ */
+public class MemoryGovernor {
+    private static final long SAMPLE_INTERVAL_MS = 20;
+    private static final long POLL_INTERVAL_MS = 5;
+
+    private final long budgetBytes;
+    private final FramePool framePool;
+    private long maxWaitMillis = 10000;
+
+    private volatile long baselineBytes = 0;
+    private volatile long highWaterBytes = 0;
+    private volatile long peakPhysicalBytes = 0;
+    private boolean poolCleared = false;
+    private volatile boolean jobRunning = false;
+    private Thread sampler = null;
+    private String jobName = null;
+
+    private long stalls = 0;
+    private long stallNanos = 0;
+    private long overruns = 0;
+
+    public MemoryGovernor(long budgetBytes, FramePool framePool) {
+        this.budgetBytes = budgetBytes;
+        this.framePool = framePool;
+    }
+
+    /**
+     * Build a governor from the device's memory recommendations
+     */
+    public static MemoryGovernor forDevice(DeviceOptimizer device, FramePool framePool) {
+        DeviceOptimizer.MemoryRecommendations recommendations = device.getMemoryRecommendations();
+        return new MemoryGovernor(recommendations.maxMemoryMB * 1024L * 1024L, framePool);
+    }
+
+    /**
+     * Start measuring a job. Memory already in use is excluded from its budget.
+     */
+    public synchronized void startJob(String name) {
+        jobName = name;
+        baselineBytes = measureNativeBytes();
+        highWaterBytes = 0;
+        peakPhysicalBytes = 0;
+        poolCleared = false;
+        stalls = 0;
+        stallNanos = 0;
+        overruns = 0;
+        jobRunning = true;
+
+        sampler = new Thread(() -> {
+            while (jobRunning) {
+                sample();
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "memory-governor");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Stop measuring the current job
+     * @return Summary with the job's high-water mark
+     */
+    public synchronized String finishJob() {
+        sample();
+        jobRunning = false;
+        if (sampler != null) {
+            sampler.interrupt();
+            sampler = null;
+        }
+        return getReport();
+    }
+
+    /**
+     * Block while the job is over budget. Idle pooled frames are freed first, once per over-budget
+     * episode. Only callers whose frames are drained by a downstream consumer should block here; if
+     * usage has not come down within maxWaitMillis the consumer is assumed stuck and the caller
+     * proceeds, counted as an overrun.
+     * @param bytesNeeded Size of the allocation the caller is about to make
+     */
+    public void awaitCapacity(long bytesNeeded) throws InterruptedException {
+        if (reclaimCapacity(bytesNeeded, false)) {
+            return;
+        }
+
+        long waitStart = System.nanoTime();
+        long deadline = waitStart + maxWaitMillis * 1000000L;
+        synchronized (this) {
+            stalls++;
+        }
+        try {
+            while (!fits(bytesNeeded)) {
+                if (System.nanoTime() >= deadline) {
+                    System.err.println("Warning: Memory budget still exceeded after " + maxWaitMillis
+                                       + " ms, continuing over budget");
+                    synchronized (this) {
+                        overruns++;
+                    }
+                    return;
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+        } finally {
+            synchronized (this) {
+                stallNanos += System.nanoTime() - waitStart;
+            }
+        }
+    }
+
+    /**
+     * Make room without blocking, for callers that nothing downstream would free memory for.
+     * Idle pooled frames are freed once per over-budget episode; if the job is still over budget the
+     * caller proceeds and it is counted as an overrun.
+     * @param bytesNeeded Size of the allocation the caller is about to make
+     * @return Whether the allocation fits in the budget
+     */
+    public boolean reclaimCapacity(long bytesNeeded) {
+        return reclaimCapacity(bytesNeeded, true);
+    }
+
+    private boolean reclaimCapacity(long bytesNeeded, boolean countOverrun) {
+        if (!jobRunning || fits(bytesNeeded)) {
+            synchronized (this) {
+                poolCleared = false;
+            }
+            return true;
+        }
+        boolean clearPool;
+        synchronized (this) {
+            clearPool = framePool != null && !poolCleared;
+            poolCleared = true;
+        }
+        if (clearPool) {
+            framePool.clear();
+            if (fits(bytesNeeded)) {
+                return true;
+            }
+        }
+        if (countOverrun) {
+            synchronized (this) {
+                overruns++;
+            }
+        }
+        return false;
+    }
+
+    private boolean fits(long bytesNeeded) {
+        return sample() + bytesNeeded <= budgetBytes;
+    }
+
+    /**
+     * Measure current job usage and update the high-water mark
+     * @return Native bytes used by the job
+     */
+    public long sample() {
+        long used = Math.max(0, measureNativeBytes() - baselineBytes);
+        if (used > highWaterBytes) {
+            highWaterBytes = used;
+        }
+        long physical = Pointer.physicalBytes();
+        if (physical > peakPhysicalBytes) {
+            peakPhysicalBytes = physical;
+        }
+        return used;
+    }
+
+    /**
+     * Off-heap bytes in use: the larger of JavaCPP's tracked allocations and the process's resident
+     * memory outside the Java heap, plus idle pooled frames (OpenCV allocations JavaCPP does not track)
+     */
+    private long measureNativeBytes() {
+        long tracked = Pointer.totalBytes();
+        long residentOffHeap = Pointer.physicalBytes() - Runtime.getRuntime().totalMemory();
+        long pooled = framePool != null ? framePool.getPooledBytes() : 0;
+        return Math.max(tracked + pooled, residentOffHeap);
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+    }
+
+    public long getBudgetBytes() { return budgetBytes; }
+    public long getHighWaterBytes() { return highWaterBytes; }
+    public long getPeakPhysicalBytes() { return peakPhysicalBytes; }
+    public synchronized long getStalls() { return stalls; }
+    public synchronized long getOverruns() { return overruns; }
+    public synchronized long getStallMillis() { return stallNanos / 1000000; }
+
+    public synchronized String getReport() {
+        return String.format("Memory report%s: high-water %.1f MB of %.1f MB budget, peak process RSS %.1f MB, " +
+                             "%d back-pressure stalls (%d ms), %d overruns",
+                             jobName != null ? " for " + jobName : "",
+                             highWaterBytes / (1024.0 * 1024.0), budgetBytes / (1024.0 * 1024.0),
+                             peakPhysicalBytes / (1024.0 * 1024.0), stalls, getStallMillis(), overruns);
+    }
+}
@@ -38,9 +38,12 @@ public class ObjectRevealTransition extends BaseTransition {
     }
 
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         if (frame1 == null || frame2 == null || frame1.empty() || frame2.empty()) {
-            return frame1 != null ? frame1.clone() : new Mat();
+            if (frame1 != null) {
+                frame1.copyTo(destination);
+            }
+            return;
         }
 
         try {
@@ -52,13 +55,13 @@ public class ObjectRevealTransition extends BaseTransition {
             Mat mask2 = generateMask(frame2);
 
             // Apply exposure matching if enabled
-            Mat adjustedFrame2 = frame2.clone();
+            Mat adjustedFrame2 = frame2;
             if (config.isEnableExposureMatching()) {
                 adjustedFrame2 = ExposureMatcher.matchExposure(frame2, frame1, config.getExposureBlendFactor());
             }
 
             // Apply object-aware transition based on type
-            Mat result = applyObjectAwareTransition(frame1, adjustedFrame2, mask1, mask2, easedProgress);
+            applyObjectAwareTransition(frame1, adjustedFrame2, mask1, mask2, easedProgress, destination);
 
             // Clean up
             mask1.release();
@@ -67,12 +70,10 @@ public class ObjectRevealTransition extends BaseTransition {
                 adjustedFrame2.release();
             }
 
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error applying object reveal transition: " + e.getMessage());
             e.printStackTrace();
-            return frame1.clone();
+            frame1.copyTo(destination);
         }
     }
 
@@ -97,39 +98,49 @@ public class ObjectRevealTransition extends BaseTransition {
     /**
      * Apply object-aware transition effect
      */
-    private Mat applyObjectAwareTransition(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress) {
+    private void applyObjectAwareTransition(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress,
+                                            Mat result) {
         switch (transitionType) {
             case OBJECT_REVEAL:
-                return applyObjectReveal(frame1, frame2, mask1, mask2, progress);
+                applyObjectReveal(frame1, frame2, mask1, mask2, progress, result);
+                break;
             case OBJECT_ZOOM_IN:
-                return applyObjectZoom(frame1, frame2, mask1, mask2, progress, true);
+                applyObjectZoom(frame1, frame2, mask1, mask2, progress, true, result);
+                break;
             case OBJECT_ZOOM_OUT:
-                return applyObjectZoom(frame1, frame2, mask1, mask2, progress, false);
+                applyObjectZoom(frame1, frame2, mask1, mask2, progress, false, result);
+                break;
             case OBJECT_SLIDE_LEFT:
-                return applyObjectSlide(frame1, frame2, mask1, mask2, progress, "left");
+                applyObjectSlide(frame1, frame2, mask1, mask2, progress, "left", result);
+                break;
             case OBJECT_SLIDE_RIGHT:
-                return applyObjectSlide(frame1, frame2, mask1, mask2, progress, "right");
+                applyObjectSlide(frame1, frame2, mask1, mask2, progress, "right", result);
+                break;
             case OBJECT_FADE_IN:
-                return applyObjectFade(frame1, frame2, mask1, mask2, progress, true);
+                applyObjectFade(frame1, frame2, mask1, mask2, progress, true, result);
+                break;
             case OBJECT_FADE_OUT:
-                return applyObjectFade(frame1, frame2, mask1, mask2, progress, false);
+                applyObjectFade(frame1, frame2, mask1, mask2, progress, false, result);
+                break;
             case OBJECT_ROTATE_IN:
-                return applyObjectRotate(frame1, frame2, mask1, mask2, progress, true);
+                applyObjectRotate(frame1, frame2, mask1, mask2, progress, true, result);
+                break;
             case OBJECT_ROTATE_OUT:
-                return applyObjectRotate(frame1, frame2, mask1, mask2, progress, false);
+                applyObjectRotate(frame1, frame2, mask1, mask2, progress, false, result);
+                break;
             case OBJECT_SCALE_TRANSITION:
-                return applyObjectScale(frame1, frame2, mask1, mask2, progress);
+                applyObjectScale(frame1, frame2, mask1, mask2, progress, result);
+                break;
             default:
-                return applyObjectReveal(frame1, frame2, mask1, mask2, progress);
+                applyObjectReveal(frame1, frame2, mask1, mask2, progress, result);
+                break;
         }
     }
 
     /**
      * Object reveal transition - objects appear/disappear smoothly
      */
-    private Mat applyObjectReveal(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectReveal(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, Mat result) {
         try {
             // Create transition mask based on progress
             Mat transitionMask = new Mat();
@@ -142,21 +153,17 @@ public class ObjectRevealTransition extends BaseTransition {
             blendFramesWithMask(frame1, frame2, transitionMask, result);
 
             transitionMask.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object reveal: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     /**
      * Object zoom transition
      */
-    private Mat applyObjectZoom(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean zoomIn) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectZoom(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean zoomIn,
+                                 Mat result) {
         try {
             float zoomFactor = zoomIn ? 1.0f + (config.getZoomLevel() - 1.0f) * (float) progress :
                                       config.getZoomLevel() - (config.getZoomLevel() - 1.0f) * (float) progress;
@@ -170,21 +177,17 @@ public class ObjectRevealTransition extends BaseTransition {
                        zoomIn ? frame2 : zoomedFrame, progress, 0, result);
 
             zoomedFrame.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object zoom: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     /**
      * Object slide transition
      */
-    private Mat applyObjectSlide(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, String direction) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectSlide(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, String direction,
+                                  Mat result) {
         try {
             // Calculate slide offset
             int offsetX = 0, offsetY = 0;
@@ -212,21 +215,17 @@ public class ObjectRevealTransition extends BaseTransition {
 
             slidFrame1.release();
             slidFrame2.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object slide: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     /**
      * Object fade transition
      */
-    private Mat applyObjectFade(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean fadeIn) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectFade(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean fadeIn,
+                                 Mat result) {
         try {
             Mat activeMask = fadeIn ? mask2 : mask1;
             Mat activeFrame = fadeIn ? frame2 : frame1;
@@ -239,21 +238,17 @@ public class ObjectRevealTransition extends BaseTransition {
             addWeighted(baseFrame, 1.0 - progress, fadedFrame, progress, 0, result);
 
             fadedFrame.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object fade: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     /**
      * Object rotate transition
      */
-    private Mat applyObjectRotate(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean rotateIn) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectRotate(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, boolean rotateIn,
+                                   Mat result) {
         try {
             float angle = rotateIn ? (float) (360.0 * progress) : (float) (360.0 * (1.0 - progress));
 
@@ -264,21 +259,16 @@ public class ObjectRevealTransition extends BaseTransition {
                        rotateIn ? rotatedFrame : frame2, progress, 0, result);
 
             rotatedFrame.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object rotate: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     /**
      * Object scale transition
      */
-    private Mat applyObjectScale(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress) {
-        Mat result = new Mat(frame1.size(), frame1.type());
-
+    private void applyObjectScale(Mat frame1, Mat frame2, Mat mask1, Mat mask2, double progress, Mat result) {
         try {
             float scale1 = 1.0f - (float) progress * 0.5f;
             float scale2 = (float) progress;
@@ -290,31 +280,21 @@ public class ObjectRevealTransition extends BaseTransition {
 
             scaledFrame1.release();
             scaledFrame2.release();
-            return result;
-
         } catch (Exception e) {
             System.err.println("Error in object scale: " + e.getMessage());
             frame1.copyTo(result);
-            return result;
         }
     }
 
     // Helper methods for applying transformations to masked regions
     private Mat applyZoomToMaskedRegion(Mat frame, Mat mask, float zoomFactor) {
-        // Implementation would apply zoom transformation only to masked areas
-        // For now, return a simple scaled version
-        Mat result = frame.clone();
-        if (zoomFactor != 1.0f) {
-            Mat scaled = new Mat();
-            resize(frame, scaled, new Size((int)(width * zoomFactor), (int)(height * zoomFactor)));
-            // Center the scaled image
-            int offsetX = (scaled.cols() - width) / 2;
-            int offsetY = (scaled.rows() - height) / 2;
-            if (offsetX >= 0 && offsetY >= 0) {
-                new Mat(scaled, new Rect(offsetX, offsetY, width, height)).copyTo(result);
-            }
-            scaled.release();
+        // Zoom the whole frame for now; one warp samples only the visible center.
+        // Zooming out keeps the frame as it is.
+        if (zoomFactor <= 1.0f) {
+            return frame.clone();
         }
+        Mat result = new Mat();
+        VideoProcessor.scaleFrame(frame, zoomFactor, result);
         return result;
     }
 
@@ -363,47 +343,8 @@ public class ObjectRevealTransition extends BaseTransition {
     }
 
     private void blendFramesWithMask(Mat frame1, Mat frame2, Mat mask, Mat result) {
-        // Normalize mask
-        Mat normalizedMask = new Mat();
-        mask.convertTo(normalizedMask, CV_32F, 1.0 / 255.0, 0.0);
-
-        // Convert frames to float
-        Mat frame1Float = new Mat();
-        Mat frame2Float = new Mat();
-        frame1.convertTo(frame1Float, CV_32F);
-        frame2.convertTo(frame2Float, CV_32F);
-
-        // Ensure mask has same number of channels
-        Mat maskChannels = new Mat();
-        if (frame1.channels() == 3 && normalizedMask.channels() == 1) {
-            Mat[] channels = {normalizedMask, normalizedMask, normalizedMask};
-            merge(new MatVector(channels), maskChannels);
-        } else {
-            maskChannels = normalizedMask.clone();
-        }
-
-        // Blend: result = frame1 * (1 - mask) + frame2 * mask
-        Mat invMask = new Mat();
-        subtract(Mat.ones(maskChannels.size(), maskChannels.type()).asMat(), maskChannels, invMask);
-
-        Mat blended1 = new Mat();
-        Mat blended2 = new Mat();
-        multiply(frame1Float, invMask, blended1);
-        multiply(frame2Float, maskChannels, blended2);
-
-        Mat resultFloat = new Mat();
-        add(blended1, blended2, resultFloat);
-        resultFloat.convertTo(result, CV_8U);
-
-        // Clean up
-        normalizedMask.release();
-        frame1Float.release();
-        frame2Float.release();
-        maskChannels.release();
-        invMask.release();
-        blended1.release();
-        blended2.release();
-        resultFloat.release();
+        // result = frame1 * (1 - mask) + frame2 * mask in one fused pass
+        PixelKernels.blendWithMask(frame2, frame1, mask, result);
     }
 
     public void setConfig(TransitionConfig config) {
@@ -0,0 +1,99 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Page curl: the outgoing frame peels away like a page turned from the bottom-right corner,
+ * revealing the incoming frame underneath.
+ *
+ * The page wraps around a cylinder whose fold line sweeps diagonally across the frame. For each output
+ * pixel the curl decides which layer is on top (the back of the curled page, the front of the page on
+ * the cylinder, the flat page, or nothing) and where on the page that point comes from. That mapping
+ * is a cached remap table per progress step, so a frame costs a copy of the incoming frame and one
+ * remap of the outgoing frame over it. When the tables for every step do not fit in the cache, each
+ * frame builds its table, uses it and frees it.
+ */
+public class PageCurlTransition extends BaseTransition {
+    // Direction the page is lifted from, and the curl radius as a fraction of the frame diagonal
+    private static final double CURL_ANGLE = Math.toRadians(20);
+    private static final double RADIUS_FRACTION = 0.08;
+
+    public PageCurlTransition(int width, int height, int transitionFrames) {
+        super(width, height, transitionFrames);
+    }
+
+    @Override
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
+        frame2.copyTo(destination);
+        RemapCache cache = RemapCache.getShared();
+        if (cache.fits(width, height, transitionFrames, 1)) {
+            cache.get("page_curl", width, height, progress, transitionFrames, this::fillCurl)
+                .applyOver(frame1, destination);
+        } else {
+            RemapCache.Table table = RemapCache.build(width, height,
+                                                      RemapCache.quantize(progress, transitionFrames), this::fillCurl);
+            table.applyOver(frame1, destination);
+            table.release();
+        }
+    }
+
+    /**
+     * Source coordinates on the outgoing page for every output pixel, or -1 where the page is gone.
+     *
+     * Positions are measured along the curl direction: t is the output pixel's coordinate and p the fold
+     * line, which moves from the far corner (page flat) to one radius before the near corner (page gone).
+     * Beyond the fold the page runs a half turn round the cylinder and then lies back over itself.
+     */
+    private void fillCurl(double progress, int width, int height, float[] mapX, float[] mapY) {
+        double ux = Math.cos(CURL_ANGLE);
+        double uy = Math.sin(CURL_ANGLE);
+        double extent = (width - 1) * ux + (height - 1) * uy;
+        double radius = Math.max(1.0, RADIUS_FRACTION * Math.hypot(width, height));
+        double fold = extent - easeInOut(progress) * (extent + radius);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                double t = x * ux + y * uy;
+                double offset = t - fold;
+
+                // Candidate page positions, top layer first
+                double upper;
+                double lower;
+                if (offset > radius) {
+                    upper = Double.NaN;
+                    lower = Double.NaN;
+                } else if (offset >= 0) {
+                    double arc = Math.asin(offset / radius);
+                    upper = fold + radius * (Math.PI - arc);
+                    lower = fold + radius * arc;
+                } else {
+                    upper = fold + Math.PI * radius - offset;
+                    lower = t;
+                }
+
+                if (!place(upper, t, x, y, ux, uy, width, height, mapX, mapY, index)
+                    && !place(lower, t, x, y, ux, uy, width, height, mapX, mapY, index)) {
+                    mapX[index] = -1;
+                    mapY[index] = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Map the output pixel to the page point at position source along the curl, if it is on the page
+     */
+    private static boolean place(double source, double t, int x, int y, double ux, double uy,
+                                 int width, int height, float[] mapX, float[] mapY, int index) {
+        if (Double.isNaN(source)) {
+            return false;
+        }
+        double sourceX = x + (source - t) * ux;
+        double sourceY = y + (source - t) * uy;
+        if (sourceX < 0 || sourceX > width - 1 || sourceY < 0 || sourceY > height - 1) {
+            return false;
+        }
+        mapX[index] = (float) sourceX;
+        mapY[index] = (float) sourceY;
+        return true;
+    }
+}
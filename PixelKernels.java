@@ -0,0 +1,251 @@
+import org.bytedeco.opencv.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_core.*;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Blend and mask-compositing kernels with two interchangeable backends:
+ * - OPENCV: addWeighted, and a CV_32F multiply/add chain for masks (the reference)
+ * - VECTOR: fused fixed-point passes on the JDK Vector API (see VectorPixelKernels)
+ *
+ * The backend is chosen at startup by selectBackend(), which the engines call when they are constructed:
+ * the vector kernels are checked against the OpenCV reference and then timed against it on a small
+ * frame, and the faster one is kept. Code that runs kernels without an engine selects on first use.
+ * Frames the vector kernels cannot handle (non-continuous inputs or outputs, other depths, mismatched
+ * shapes) always take the OpenCV path.
+ */
+public final class PixelKernels {
+    public enum Backend { OPENCV, VECTOR }
+
+    // Largest per-sample difference allowed between the backends (both round, to different precisions)
+    static final double TOLERANCE = 1;
+
+    private static final int PROBE_WIDTH = 640;
+    private static final int PROBE_HEIGHT = 360;
+    private static final int PROBE_ITERATIONS = 30;
+
+    private static volatile Backend backend = null;
+    private static String selectionReport = "Pixel kernels: not selected yet";
+
+    private PixelKernels() {}
+
+    /**
+     * result = a * alpha + b * (1 - alpha)
+     */
+    public static void blend(Mat a, Mat b, double alpha, Mat result) {
+        blend(a, b, alpha, result, getBackend());
+    }
+
+    /**
+     * result = a * mask + b * (1 - mask), with an 8-bit single-channel mask where 255 selects a
+     */
+    public static void blendWithMask(Mat a, Mat b, Mat mask, Mat result) {
+        blendWithMask(a, b, mask, result, getBackend());
+    }
+
+    static void blend(Mat a, Mat b, double alpha, Mat result, Backend backend) {
+        if (backend == Backend.VECTOR && canVectorize(a, b) && prepareResult(a, result)) {
+            int weight = (int) Math.round(Math.max(0.0, Math.min(1.0, alpha)) * 256);
+            VectorPixelKernels.blend(buffer(a), buffer(b), buffer(result), (int) bytes(a), weight);
+            return;
+        }
+        addWeighted(a, alpha, b, 1.0 - alpha, 0, result);
+    }
+
+    static void blendWithMask(Mat a, Mat b, Mat mask, Mat result, Backend backend) {
+        if (backend == Backend.VECTOR && canVectorize(a, b) && isContinuous8U(mask) && mask.channels() == 1
+            && mask.rows() == a.rows() && mask.cols() == a.cols()
+            && VectorPixelKernels.supportsChannels(a.channels()) && prepareResult(a, result)) {
+            VectorPixelKernels.blendWithMask(buffer(a), buffer(b), buffer(mask), buffer(result),
+                                             (int) a.total(), a.channels());
+            return;
+        }
+        blendWithMaskReference(a, b, mask, result);
+    }
+
+    /**
+     * OpenCV reference: b + (a - b) * mask / 255 in CV_32F
+     */
+    private static void blendWithMaskReference(Mat a, Mat b, Mat mask, Mat result) {
+        Mat weights = new Mat();
+        Mat floatA = new Mat();
+        Mat floatB = new Mat();
+        Mat blended = new Mat();
+        try {
+            mask.convertTo(weights, CV_32F, 1.0 / 255.0, 0.0);
+            if (a.channels() > 1 && weights.channels() == 1) {
+                Mat single = weights;
+                weights = new Mat();
+                MatVector planes = new MatVector(a.channels());
+                for (int c = 0; c < a.channels(); c++) {
+                    planes.put(c, single);
+                }
+                merge(planes, weights);
+                single.release();
+            }
+            a.convertTo(floatA, CV_32F);
+            b.convertTo(floatB, CV_32F);
+            subtract(floatA, floatB, blended);
+            multiply(blended, weights, blended);
+            add(blended, floatB, blended);
+            blended.convertTo(result, a.type());
+        } finally {
+            weights.release();
+            floatA.release();
+            floatB.release();
+            blended.release();
+        }
+    }
+
+    /**
+     * Backend in use, selecting it on the first call
+     */
+    public static Backend getBackend() {
+        Backend selected = backend;
+        return selected != null ? selected : selectBackend();
+    }
+
+    /**
+     * Force a backend instead of the measured choice. VECTOR is ignored when the Vector API is unavailable.
+     */
+    public static synchronized void setBackend(Backend forced) {
+        if (forced == Backend.VECTOR && !isVectorAvailable()) {
+            System.out.println("Warning: Vector API not available, keeping the OpenCV pixel kernels");
+            forced = Backend.OPENCV;
+        }
+        selectionReport = "Pixel kernels: " + forced + " (set explicitly)";
+        backend = forced;
+    }
+
+    public static synchronized String getSelectionReport() {
+        return selectionReport;
+    }
+
+    /**
+     * Check the vector kernels against OpenCV, time both and keep the faster one
+     */
+    public static synchronized Backend selectBackend() {
+        if (backend != null) {
+            return backend;
+        }
+
+        Backend selected = Backend.OPENCV;
+        if (!isVectorAvailable()) {
+            selectionReport = "Pixel kernels: OPENCV (Vector API not available; run with --add-modules jdk.incubator.vector)";
+        } else {
+            Mat a = randomFrame(CV_8UC3);
+            Mat b = randomFrame(CV_8UC3);
+            Mat mask = randomFrame(CV_8UC1);
+            Mat result = new Mat();
+            try {
+                double difference = maxDifference(a, b, mask);
+                if (difference > TOLERANCE) {
+                    selectionReport = String.format("Pixel kernels: OPENCV (vector output differs by %.0f)", difference);
+                } else {
+                    double openCvMs = time(Backend.OPENCV, a, b, mask, result);
+                    double vectorMs = time(Backend.VECTOR, a, b, mask, result);
+                    selected = vectorMs < openCvMs ? Backend.VECTOR : Backend.OPENCV;
+                    selectionReport = String.format("Pixel kernels: %s (vector %.3f ms, OpenCV %.3f ms per blend + mask at %dx%d, %s)",
+                                                    selected, vectorMs, openCvMs, PROBE_WIDTH, PROBE_HEIGHT,
+                                                    VectorPixelKernels.describe());
+                }
+            } catch (LinkageError e) {
+                // Vector API present but incompatible with the methods used here
+                selectionReport = "Pixel kernels: OPENCV (Vector API unusable: " + e + ")";
+                selected = Backend.OPENCV;
+            } finally {
+                a.release();
+                b.release();
+                mask.release();
+                result.release();
+            }
+        }
+
+        System.out.println(selectionReport);
+        backend = selected;
+        return selected;
+    }
+
+    /**
+     * Largest per-sample difference between the vector kernels and the OpenCV reference over a few
+     * weights and the given mask
+     */
+    static double maxDifference(Mat a, Mat b, Mat mask) {
+        Mat expected = new Mat();
+        Mat actual = new Mat();
+        try {
+            double difference = 0;
+            for (double alpha : new double[] { 0.0, 0.1, 0.25, 0.5, 0.73, 1.0 }) {
+                blend(a, b, alpha, expected, Backend.OPENCV);
+                blend(a, b, alpha, actual, Backend.VECTOR);
+                difference = Math.max(difference, norm(expected, actual, NORM_INF, new Mat()));
+            }
+            blendWithMask(a, b, mask, expected, Backend.OPENCV);
+            blendWithMask(a, b, mask, actual, Backend.VECTOR);
+            return Math.max(difference, norm(expected, actual, NORM_INF, new Mat()));
+        } finally {
+            expected.release();
+            actual.release();
+        }
+    }
+
+    /**
+     * Average milliseconds for one blend plus one mask composite after a warm-up
+     */
+    static double time(Backend backend, Mat a, Mat b, Mat mask, Mat result) {
+        for (int i = 0; i < PROBE_ITERATIONS; i++) {
+            blend(a, b, 0.5, result, backend);
+            blendWithMask(a, b, mask, result, backend);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PROBE_ITERATIONS; i++) {
+            blend(a, b, i / (double) PROBE_ITERATIONS, result, backend);
+            blendWithMask(a, b, mask, result, backend);
+        }
+        return (System.nanoTime() - start) / 1000000.0 / PROBE_ITERATIONS;
+    }
+
+    static boolean isVectorAvailable() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return false;
+        }
+        try {
+            return VectorPixelKernels.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean canVectorize(Mat a, Mat b) {
+        return isContinuous8U(a) && isContinuous8U(b)
+            && a.rows() == b.rows() && a.cols() == b.cols() && a.type() == b.type()
+            && bytes(a) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Size result like a; false when it stays a non-continuous view (an ROI of the right size is kept
+     * by create()), which the vector kernels would write across the row gaps of
+     */
+    private static boolean prepareResult(Mat a, Mat result) {
+        result.create(a.rows(), a.cols(), a.type());
+        return isContinuous8U(result);
+    }
+
+    private static boolean isContinuous8U(Mat mat) {
+        return mat != null && !mat.empty() && mat.depth() == CV_8U && mat.isContinuous();
+    }
+
+    private static long bytes(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+
+    private static ByteBuffer buffer(Mat mat) {
+        return mat.data().capacity(bytes(mat)).asByteBuffer();
+    }
+
+    private static Mat randomFrame(int type) {
+        Mat frame = new Mat(PROBE_HEIGHT, PROBE_WIDTH, type);
+        randu(frame, new Mat(1, 1, CV_64F, new Scalar(0)), new Mat(1, 1, CV_64F, new Scalar(256)));
+        return frame;
+    }
+}
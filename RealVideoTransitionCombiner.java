@@ -6,7 +6,6 @@ import static org.bytedeco.opencv.global.opencv_imgproc.*;
 import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -61,8 +60,8 @@ public class RealVideoTransitionCombiner {
             String video2Path = videoFiles[1].getAbsolutePath();
             
             System.out.println("Loading video frames...");
-            List<Mat> video1Frames = loadVideoFrames(video1Path, "Video 1");
-            List<Mat> video2Frames = loadVideoFrames(video2Path, "Video 2");
+            CompressedFrameStore video1Frames = loadVideoFrames(video1Path, "Video 1");
+            CompressedFrameStore video2Frames = loadVideoFrames(video2Path, "Video 2");
             
             if (video1Frames.isEmpty() || video2Frames.isEmpty()) {
                 System.err.println("ERROR: Failed to load video frames");
@@ -105,8 +104,8 @@ public class RealVideoTransitionCombiner {
     /**
      * Load actual video frames from file
      */
-    private List<Mat> loadVideoFrames(String videoPath, String videoName) {
-        List<Mat> frames = new ArrayList<>();
+    private CompressedFrameStore loadVideoFrames(String videoPath, String videoName) {
+        CompressedFrameStore frames = new CompressedFrameStore();
         FFmpegFrameGrabber grabber = null;
         
         try {
@@ -131,6 +130,7 @@ public class RealVideoTransitionCombiner {
                         Mat resized = new Mat();
                         resize(mat, resized, new Size(TARGET_WIDTH, TARGET_HEIGHT));
                         frames.add(resized);
+                        resized.release();
                         frameCount++;
                         mat.release();
                     }
@@ -524,21 +524,8 @@ public class RealVideoTransitionCombiner {
      */
     private Mat applyDiagonalTransition(Mat frame1, Mat frame2, double progress) {
         Mat result = new Mat();
-        frame1.copyTo(result);
-
-        Mat mask = new Mat(TARGET_HEIGHT, TARGET_WIDTH, CV_8UC1, new Scalar(0));
-
-        // Create diagonal wipe mask
-        for (int y = 0; y < TARGET_HEIGHT; y++) {
-            for (int x = 0; x < TARGET_WIDTH; x++) {
-                if (x + y < (TARGET_WIDTH + TARGET_HEIGHT) * progress) {
-                    mask.ptr(y, x).put((byte)255);
-                }
-            }
-        }
-
-        frame2.copyTo(result, mask);
-        mask.release();
+        WipeField.get(WipeField.Pattern.DIAGONAL, TARGET_WIDTH, TARGET_HEIGHT)
+            .composite(frame1, frame2, progress, result, FramePool.getShared());
         return result;
     }
 
@@ -591,30 +578,8 @@ public class RealVideoTransitionCombiner {
      */
     private Mat applySpiralTransition(Mat frame1, Mat frame2, double progress) {
         Mat result = new Mat();
-        frame1.copyTo(result);
-
-        Mat mask = new Mat(TARGET_HEIGHT, TARGET_WIDTH, CV_8UC1, new Scalar(0));
-
-        int centerX = TARGET_WIDTH / 2;
-        int centerY = TARGET_HEIGHT / 2;
-        double maxAngle = 4 * Math.PI * progress; // 2 full rotations
-        int maxRadius = (int)Math.sqrt(centerX * centerX + centerY * centerY);
-
-        for (int y = 0; y < TARGET_HEIGHT; y++) {
-            for (int x = 0; x < TARGET_WIDTH; x++) {
-                int dx = x - centerX;
-                int dy = y - centerY;
-                double angle = Math.atan2(dy, dx) + Math.PI;
-                double radius = Math.sqrt(dx * dx + dy * dy);
-
-                if (angle <= maxAngle && radius <= maxRadius * progress) {
-                    mask.ptr(y, x).put((byte)255);
-                }
-            }
-        }
-
-        frame2.copyTo(result, mask);
-        mask.release();
+        WipeField.get(WipeField.Pattern.SPIRAL, TARGET_WIDTH, TARGET_HEIGHT)
+            .composite(frame1, frame2, progress, result, FramePool.getShared());
         return result;
     }
 
@@ -753,11 +718,8 @@ public class RealVideoTransitionCombiner {
     /**
      * Cleanup frame list
      */
-    private void cleanupFrames(List<Mat> frames) {
-        for (Mat frame : frames) {
-            if (frame != null && !frame.empty()) {
-                frame.release();
-            }
-        }
+    private void cleanupFrames(CompressedFrameStore frames) {
+        System.out.println("  " + frames.getReport());
+        frames.close();
     }
 }
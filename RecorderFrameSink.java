@@ -0,0 +1,59 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Frame sink that records each frame straight to an FFmpegFrameRecorder on the calling thread.
+ * Frames are wrapped for the recorder without copying, through the given converter or FrameBridge,
+ * or as YUV420P planes when the sink is in I420 mode.
+ * Consumed frames go back to the frame pool when one is given, otherwise they are released.
+ */
+public class RecorderFrameSink implements FrameSink {
+    private final FFmpegFrameRecorder recorder;
+    private final OpenCVFrameConverter.ToMat converter;
+    private final FramePool framePool;
+    private boolean yuv420 = false;
+
+    public RecorderFrameSink(FFmpegFrameRecorder recorder, OpenCVFrameConverter.ToMat converter) {
+        this(recorder, converter, null);
+    }
+
+    /**
+     * Sink converting through the calling thread's FrameBridge converter
+     */
+    public RecorderFrameSink(FFmpegFrameRecorder recorder, FramePool framePool) {
+        this(recorder, null, framePool);
+    }
+
+    public RecorderFrameSink(FFmpegFrameRecorder recorder, OpenCVFrameConverter.ToMat converter, FramePool framePool) {
+        this.recorder = recorder;
+        this.converter = converter;
+        this.framePool = framePool;
+    }
+
+    /**
+     * Treat written frames as I420 and record them in the recorder's YUV420P format
+     */
+    public RecorderFrameSink setYuv420(boolean yuv420) {
+        this.yuv420 = yuv420;
+        return this;
+    }
+
+    @Override
+    public void write(Mat frame) throws Exception {
+        if (yuv420) {
+            Yuv420Frames.record(recorder, frame);
+        } else {
+            recorder.record(converter != null ? converter.convert(frame) : FrameBridge.toFrame(frame));
+        }
+        recycle(frame);
+    }
+
+    @Override
+    public void recycle(Mat frame) {
+        if (framePool != null) {
+            framePool.recycle(frame);
+        } else {
+            frame.release();
+        }
+    }
+}
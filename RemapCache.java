@@ -0,0 +1,196 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+import java.nio.FloatBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of remap tables for geometric transitions.
+ *
+ * A geometric transition describes, for each output pixel, where to sample its source frame at a given
+ * progress. Progress is quantised to the transition's frame count, and the table for each step is built
+ * once per resolution, converted to OpenCV's fixed-point map format and kept here, so rendering a frame
+ * is one remap() per visible source frame. Output pixels that show nothing of a source map outside it
+ * (-1), which BORDER_TRANSPARENT leaves untouched and BORDER_CONSTANT fills.
+ *
+ * Tables are evicted least recently used beyond maxBytes. Eviction only drops the cache's reference;
+ * a render may still be sampling through the table, so its native maps are left to the garbage collector.
+ *
+ * A transition steps through its tables in order, so if they do not all fit the LRU evicts each one just
+ * before it is needed again and every frame rebuilds its table. Transitions check fits() first and
+ * otherwise render without the cache.
+ */
+public class RemapCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    // CV_16SC2 integer coordinates plus CV_16UC1 interpolation weights per pixel
+    private static final int BYTES_PER_PIXEL = 6;
+
+    private static final RemapCache SHARED = new RemapCache(DEFAULT_MAX_BYTES);
+
+    /**
+     * Fills source coordinates for every output pixel, row-major, at the given progress
+     */
+    public interface Generator {
+        void fill(double progress, int width, int height, float[] mapX, float[] mapY);
+    }
+
+    private final Map<String, Table> tables = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long cachedBytes = 0;
+    private long hits = 0;
+    private long builds = 0;
+    private long buildNanos = 0;
+
+    public RemapCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static RemapCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Progress rounded to the nearest of steps evenly spaced values from 0 to 1
+     */
+    public static double quantize(double progress, int steps) {
+        int last = Math.max(1, steps - 1);
+        return Math.round(Math.max(0.0, Math.min(1.0, progress)) * last) / (double) last;
+    }
+
+    /**
+     * Memory of one table at the given resolution
+     */
+    public static long tableBytes(int width, int height) {
+        return (long) width * height * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Whether every step of the given number of mappings fits in the cache together
+     */
+    public synchronized boolean fits(int width, int height, int steps, int mappings) {
+        return tableBytes(width, height) * Math.max(1, steps) * mappings <= maxBytes;
+    }
+
+    /**
+     * Table for the named mapping at the quantised progress, built on first use
+     * @param name Identifies the mapping; the same name must always use the same generator
+     */
+    public Table get(String name, int width, int height, double progress, int steps, Generator generator) {
+        double step = quantize(progress, steps);
+        String key = name + ":" + width + "x" + height + ":" + steps + ":" + step;
+        synchronized (this) {
+            Table table = tables.get(key);
+            if (table != null) {
+                hits++;
+                return table;
+            }
+        }
+
+        // Build outside the lock so other transitions keep rendering; a concurrent duplicate is harmless
+        long start = System.nanoTime();
+        Table table = build(width, height, step, generator);
+        synchronized (this) {
+            builds++;
+            buildNanos += System.nanoTime() - start;
+            Table existing = tables.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            tables.put(key, table);
+            cachedBytes += table.bytes;
+            evict();
+        }
+        return table;
+    }
+
+    /**
+     * Build a table outside the cache; the caller releases it when done
+     */
+    public static Table build(int width, int height, double progress, Generator generator) {
+        int pixels = width * height;
+        float[] x = new float[pixels];
+        float[] y = new float[pixels];
+        generator.fill(progress, width, height, x, y);
+
+        Mat mapX = new Mat(height, width, CV_32FC1);
+        Mat mapY = new Mat(height, width, CV_32FC1);
+        Mat map1 = FrameScope.escape(new Mat());
+        Mat map2 = FrameScope.escape(new Mat());
+        try {
+            ((FloatBuffer) mapX.createBuffer()).put(x);
+            ((FloatBuffer) mapY.createBuffer()).put(y);
+            convertMaps(mapX, mapY, map1, map2, CV_16SC2, false);
+        } finally {
+            mapX.release();
+            mapY.release();
+        }
+        return new Table(map1, map2);
+    }
+
+    private void evict() {
+        Iterator<Table> iterator = tables.values().iterator();
+        while (cachedBytes > maxBytes && tables.size() > 1 && iterator.hasNext()) {
+            Table eldest = iterator.next();
+            cachedBytes -= eldest.bytes;
+            iterator.remove();
+        }
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        evict();
+    }
+
+    public synchronized void clear() {
+        tables.clear();
+        cachedBytes = 0;
+    }
+
+    public synchronized String getReport() {
+        return String.format("Remap cache: %d tables (%.1f MB), %d hits, %d builds (%.1f ms avg)",
+                             tables.size(), cachedBytes / (1024.0 * 1024.0), hits, builds,
+                             builds > 0 ? buildNanos / 1000000.0 / builds : 0.0);
+    }
+
+    /**
+     * One precomputed mapping in fixed-point form
+     */
+    public static class Table {
+        private final Mat map1;
+        private final Mat map2;
+        private final long bytes;
+
+        Table(Mat map1, Mat map2) {
+            this.map1 = map1;
+            this.map2 = map2;
+            this.bytes = map1.total() * map1.elemSize() + map2.total() * map2.elemSize();
+        }
+
+        /**
+         * Sample source into destination, filling unmapped pixels with the border value
+         */
+        public void apply(Mat source, Mat destination, Scalar border) {
+            remap(source, destination, map1, map2, INTER_LINEAR, BORDER_CONSTANT, border);
+        }
+
+        /**
+         * Sample source into destination, leaving unmapped pixels of destination as they are
+         */
+        public void applyOver(Mat source, Mat destination) {
+            remap(source, destination, map1, map2, INTER_LINEAR, BORDER_TRANSPARENT, new Scalar(0.0));
+        }
+
+        /**
+         * Free the maps of a table from build(); cached tables must not be released
+         */
+        public void release() {
+            map1.release();
+            map2.release();
+        }
+    }
+}
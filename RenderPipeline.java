@@ -0,0 +1,394 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.opencv.opencv_core.Mat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Three-stage decode -> render -> encode pipeline.
+ * Each stage runs on its own thread and the stages are joined by bounded queues,
+ * so a slow stage back-pressures the others instead of letting frames pile up.
+ * Decoded frame buffers are recycled once the encoder has consumed them.
+ */
+public class RenderPipeline {
+
+    /**
+     * The render stage, driven on the calling thread with queue-backed sources and sink
+     */
+    public interface RenderStage {
+        void render(VideoTransitionEngine.SourceOpener opener, FrameSink sink) throws Exception;
+    }
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final int decodeQueueDepth;
+    private final int encodeQueueDepth;
+
+    private BlockingQueue<DecodedSlot> decodeQueue;
+    private BlockingQueue<Mat> encodeQueue;
+    private BlockingQueue<Mat> freeBuffers;
+    private Mat endOfStream;
+    private volatile Throwable failure;
+    private MemoryGovernor memoryGovernor = null;
+    private boolean yuv420 = false;
+
+    private final StageStats decodeStats = new StageStats("decode");
+    private final StageStats renderStats = new StageStats("render");
+    private final StageStats encodeStats = new StageStats("encode");
+
+    public RenderPipeline(int decodeQueueDepth, int encodeQueueDepth) {
+        this.decodeQueueDepth = Math.max(1, decodeQueueDepth);
+        this.encodeQueueDepth = Math.max(1, encodeQueueDepth);
+    }
+
+    /**
+     * Make the decode stage wait while the job is over its native memory budget
+     */
+    public void setMemoryGovernor(MemoryGovernor memoryGovernor) {
+        this.memoryGovernor = memoryGovernor;
+    }
+
+    /**
+     * Record frames as I420 planes instead of BGR
+     */
+    public void setYuv420(boolean yuv420) {
+        this.yuv420 = yuv420;
+    }
+
+    /**
+     * Run the pipeline over the given inputs, recording every rendered frame
+     */
+    public void run(int clipCount, VideoTransitionEngine.ClipOpener clipOpener, FFmpegFrameRecorder recorder,
+                    RenderStage renderStage) throws Exception {
+        decodeQueue = new ArrayBlockingQueue<>(decodeQueueDepth);
+        encodeQueue = new ArrayBlockingQueue<>(encodeQueueDepth);
+        freeBuffers = new ArrayBlockingQueue<>(decodeQueueDepth + encodeQueueDepth + 2);
+        endOfStream = new Mat();
+        failure = null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> decoder = executor.submit(() -> decodeLoop(clipCount, clipOpener));
+            Future<?> encoder = executor.submit(() -> encodeLoop(recorder));
+
+            renderStats.start();
+            try {
+                renderStage.render(this::openQueuedSource, new QueueFrameSink());
+                put(encodeQueue, endOfStream, renderStats);
+            } catch (Exception e) {
+                fail(e);
+                if (failure != e) {
+                    // Render was aborted because another stage failed first
+                    throw new Exception("Render pipeline failed: " + failure.getMessage(), failure);
+                }
+                throw e;
+            } finally {
+                renderStats.finish();
+            }
+
+            decoder.get();
+            encoder.get();
+
+            if (failure != null) {
+                throw new Exception("Render pipeline failed: " + failure.getMessage(), failure);
+            }
+        } finally {
+            // The stages may still be filling buffers or inside recorder.record(); wait for them to
+            // stop before freeing the buffers and handing the recorder back to the caller
+            fail(new InterruptedException("Pipeline stopped"));
+            executor.shutdownNow();
+            awaitTermination(executor);
+            releaseAll(decodeQueue);
+            releaseAll(encodeQueue);
+            releaseAll(freeBuffers);
+        }
+    }
+
+    /**
+     * Decode stage: reads every clip in order into recycled buffers
+     */
+    private void decodeLoop(int clipCount, VideoTransitionEngine.ClipOpener clipOpener) {
+        decodeStats.start();
+        long frameBytes = 0;
+        try {
+            for (int i = 0; i < clipCount && failure == null; i++) {
+                try (ClipFrameReader reader = clipOpener.open(i)) {
+                    while (failure == null) {
+                        Mat buffer = freeBuffers.poll();
+                        if (buffer == null) {
+                            // Only a fresh allocation grows native memory, so only then wait for budget
+                            if (memoryGovernor != null) {
+                                long waitStart = System.nanoTime();
+                                memoryGovernor.awaitCapacity(frameBytes);
+                                decodeStats.waitNanos += System.nanoTime() - waitStart;
+                            }
+                            buffer = new Mat();
+                        }
+                        Mat frame = reader.nextFrame(buffer);
+                        if (frame == null) {
+                            recycleBuffer(buffer);
+                            break;
+                        }
+                        decodeStats.items++;
+                        frameBytes = frame.total() * frame.elemSize();
+                        put(decodeQueue, new DecodedSlot(i, frame, null), decodeStats);
+                    }
+                    put(decodeQueue, new DecodedSlot(i, null, null), decodeStats);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // Surface the error on the render side, where clips are consumed
+                    try {
+                        put(decodeQueue, new DecodedSlot(i, null, e), decodeStats);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                    return;
+                }
+            }
+        } finally {
+            decodeStats.finish();
+        }
+    }
+
+    /**
+     * Encode stage: records rendered frames and recycles their buffers
+     */
+    private void encodeLoop(FFmpegFrameRecorder recorder) {
+        encodeStats.start();
+        try {
+            while (true) {
+                Mat frame = take(encodeQueue, encodeStats);
+                if (frame == endOfStream) {
+                    return;
+                }
+                if (yuv420) {
+                    Yuv420Frames.record(recorder, frame);
+                } else {
+                    recorder.record(FrameBridge.toFrame(frame));
+                }
+                encodeStats.items++;
+                recycleBuffer(frame);
+            }
+        } catch (InterruptedException e) {
+            // Pipeline is shutting down
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            encodeStats.finish();
+        }
+    }
+
+    private FrameSource openQueuedSource(int clipIndex) {
+        return new QueuedFrameSource(clipIndex);
+    }
+
+    /**
+     * Frame source that consumes one clip's frames from the decode queue
+     */
+    private class QueuedFrameSource implements FrameSource {
+        private final int clipIndex;
+        private boolean finished = false;
+
+        QueuedFrameSource(int clipIndex) {
+            this.clipIndex = clipIndex;
+        }
+
+        @Override
+        public Mat nextFrame() throws Exception {
+            if (finished) {
+                return null;
+            }
+            DecodedSlot slot = take(decodeQueue, renderStats);
+            if (slot.error != null) {
+                throw slot.error;
+            }
+            if (slot.clipIndex != clipIndex) {
+                throw new IllegalStateException("Decode queue out of order: expected clip " + clipIndex +
+                                                " but got clip " + slot.clipIndex);
+            }
+            if (slot.frame == null) {
+                finished = true;
+                return null;
+            }
+            return slot.frame;
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+        }
+    }
+
+    /**
+     * Sink that hands rendered frames to the encode stage
+     */
+    private class QueueFrameSink implements FrameSink {
+        @Override
+        public void write(Mat frame) throws Exception {
+            renderStats.items++;
+            put(encodeQueue, frame, renderStats);
+        }
+
+        @Override
+        public void recycle(Mat frame) {
+            recycleBuffer(frame);
+        }
+    }
+
+    private void recycleBuffer(Mat frame) {
+        if (!freeBuffers.offer(frame)) {
+            frame.release();
+        }
+    }
+
+    private <T> void put(BlockingQueue<T> queue, T item, StageStats producer) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        while (!queue.offer(item, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            if (failure != null) {
+                throw new InterruptedException("Pipeline aborted");
+            }
+        }
+        producer.waitNanos += System.nanoTime() - waitStart;
+        producer.sampleQueueDepth(queue.size());
+    }
+
+    private <T> T take(BlockingQueue<T> queue, StageStats consumer) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        T item;
+        while ((item = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+            if (failure != null) {
+                throw new InterruptedException("Pipeline aborted");
+            }
+        }
+        consumer.waitNanos += System.nanoTime() - waitStart;
+        return item;
+    }
+
+    private void fail(Throwable t) {
+        if (failure == null) {
+            failure = t;
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void releaseAll(BlockingQueue<?> queue) {
+        if (queue == null) {
+            return;
+        }
+        Object item;
+        while ((item = queue.poll()) != null) {
+            Mat frame = item instanceof DecodedSlot ? ((DecodedSlot) item).frame : (Mat) item;
+            if (frame != null) {
+                frame.release();
+            }
+        }
+    }
+
+    /**
+     * Build the end-of-run report with per-stage utilization and queue depth
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("Pipeline report:\n");
+        report.append(decodeStats.describe("decode queue", decodeQueueDepth)).append("\n");
+        report.append(renderStats.describe("encode queue", encodeQueueDepth)).append("\n");
+        report.append(encodeStats.describe(null, 0));
+        return report.toString();
+    }
+
+    public StageStats getDecodeStats() { return decodeStats; }
+    public StageStats getRenderStats() { return renderStats; }
+    public StageStats getEncodeStats() { return encodeStats; }
+
+    /**
+     * A decoded frame (or end-of-clip marker when frame is null) tagged with its clip
+     */
+    private static class DecodedSlot {
+        final int clipIndex;
+        final Mat frame;
+        final Exception error;
+
+        DecodedSlot(int clipIndex, Mat frame, Exception error) {
+            this.clipIndex = clipIndex;
+            this.frame = frame;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Timing and queue statistics for a single pipeline stage
+     */
+    public static class StageStats {
+        private final String name;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile long waitNanos;
+        private volatile long items;
+        private volatile int maxQueueDepth;
+        private volatile long queueDepthSum;
+        private volatile long queueDepthSamples;
+
+        StageStats(String name) {
+            this.name = name;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        void finish() {
+            endNanos = System.nanoTime();
+        }
+
+        void sampleQueueDepth(int depth) {
+            maxQueueDepth = Math.max(maxQueueDepth, depth);
+            queueDepthSum += depth;
+            queueDepthSamples++;
+        }
+
+        public long getItems() { return items; }
+
+        public double getUtilization() {
+            long wall = endNanos - startNanos;
+            if (wall <= 0) {
+                return 0.0;
+            }
+            return Math.max(0.0, 1.0 - (double) waitNanos / wall);
+        }
+
+        public double getAverageQueueDepth() {
+            return queueDepthSamples == 0 ? 0.0 : (double) queueDepthSum / queueDepthSamples;
+        }
+
+        public int getMaxQueueDepth() { return maxQueueDepth; }
+
+        String describe(String outputQueue, int capacity) {
+            String line = String.format("  %-7s %6d frames, utilization %5.1f%%",
+                                        name + ":", items, getUtilization() * 100.0);
+            if (outputQueue != null) {
+                line += String.format(", %s depth avg %.1f / max %d (capacity %d)",
+                                      outputQueue, getAverageQueueDepth(), maxQueueDepth, capacity);
+            }
+            return line;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point2f;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
 
 /**
- * Rotation transition effects
+ * Rotation transition effects, rendered through cached remap tables when every step fits in the cache
+ * and with warpAffine otherwise
  */
 public class RotateTransition extends BaseTransition {
     private TransitionType type;
@@ -12,66 +17,91 @@ public class RotateTransition extends BaseTransition {
     }
     
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         switch (type) {
             case ROTATE_CLOCKWISE:
-                return rotateClockwise(frame1, frame2, progress);
+                rotateClockwise(frame1, frame2, progress, destination);
+                break;
             case ROTATE_COUNTERCLOCKWISE:
-                return rotateCounterclockwise(frame1, frame2, progress);
+                rotateCounterclockwise(frame1, frame2, progress, destination);
+                break;
             default:
-                return rotateClockwise(frame1, frame2, progress);
+                rotateClockwise(frame1, frame2, progress, destination);
+                break;
         }
     }
     
     /**
-     * Clockwise rotation transition
+     * Clockwise rotation transition: frame1 rotates out (0 to 180 degrees), then frame2 rotates in
+     * (-180 to 0 degrees)
      */
-    private Mat rotateClockwise(Mat frame1, Mat frame2, double progress) {
-        double easedProgress = easeInOut(progress);
-        
-        // Rotate frame1 out (0 to 180 degrees)
-        double angle1 = easedProgress * 180.0;
-        Mat rotatedFrame1 = VideoProcessor.rotateFrame(frame1, angle1);
-        
-        // Rotate frame2 in (-180 to 0 degrees)
-        double angle2 = -180.0 + (easedProgress * 180.0);
-        Mat rotatedFrame2 = VideoProcessor.rotateFrame(frame2, angle2);
-        
-        // Blend based on progress
-        if (progress < 0.5) {
-            // First half: show rotating frame1
-            double alpha = 1.0 - (progress * 2.0);
-            return VideoProcessor.blendFrames(VideoProcessor.createBlankFrame(width, height), rotatedFrame1, alpha);
+    private void rotateClockwise(Mat frame1, Mat frame2, double progress, Mat result) {
+        rotateAndFade(frame1, frame2, progress, result);
+    }
+    
+    /**
+     * Counterclockwise rotation transition: frame1 rotates out (0 to -180 degrees), then frame2
+     * rotates in (180 to 0 degrees)
+     */
+    private void rotateCounterclockwise(Mat frame1, Mat frame2, double progress, Mat result) {
+        rotateAndFade(frame1, frame2, progress, result);
+    }
+    
+    /**
+     * Show the rotating outgoing frame in the first half and the rotating incoming frame in the
+     * second half, each faded against black. Only the visible frame is sampled, straight into the
+     * result.
+     */
+    private void rotateAndFade(Mat frame1, Mat frame2, double progress, Mat result) {
+        double step = RemapCache.quantize(progress, transitionFrames);
+        boolean firstHalf = step < 0.5;
+        Mat source = firstHalf ? frame1 : frame2;
+        Scalar black = new Scalar(blackLevel, blackLevel, blackLevel, 0);
+        result.create(height, width, frameType);
+        RemapCache cache = RemapCache.getShared();
+        if (cache.fits(width, height, transitionFrames, 1)) {
+            cache.get("rotate:" + type, width, height, step, transitionFrames, this::fillRotation)
+                .apply(source, result, black);
         } else {
-            // Second half: show rotating frame2
-            double alpha = (progress - 0.5) * 2.0;
-            return VideoProcessor.blendFrames(VideoProcessor.createBlankFrame(width, height), rotatedFrame2, alpha);
+            Mat rotation = getRotationMatrix2D(new Point2f(width / 2.0f, height / 2.0f), rotationAngle(step), 1.0);
+            warpAffine(source, result, rotation, new Size(width, height), INTER_LINEAR, BORDER_CONSTANT, black);
+            rotation.release();
         }
+        
+        // Blending with a black frame only scales the rotated one
+        double alpha = firstHalf ? 1.0 - (progress * 2.0) : (progress - 0.5) * 2.0;
+        alpha = Math.max(0.0, Math.min(1.0, alpha));
+        result.convertTo(result, -1, 1.0 - alpha, blackLevel * alpha);
     }
     
     /**
-     * Counterclockwise rotation transition
+     * Source coordinates of a frame rotated about the frame center by the angle for this progress
      */
-    private Mat rotateCounterclockwise(Mat frame1, Mat frame2, double progress) {
-        double easedProgress = easeInOut(progress);
-        
-        // Rotate frame1 out (0 to -180 degrees)
-        double angle1 = -easedProgress * 180.0;
-        Mat rotatedFrame1 = VideoProcessor.rotateFrame(frame1, angle1);
-        
-        // Rotate frame2 in (180 to 0 degrees)
-        double angle2 = 180.0 - (easedProgress * 180.0);
-        Mat rotatedFrame2 = VideoProcessor.rotateFrame(frame2, angle2);
-        
-        // Blend based on progress
-        if (progress < 0.5) {
-            // First half: show rotating frame1
-            double alpha = 1.0 - (progress * 2.0);
-            return VideoProcessor.blendFrames(VideoProcessor.createBlankFrame(width, height), rotatedFrame1, alpha);
-        } else {
-            // Second half: show rotating frame2
-            double alpha = (progress - 0.5) * 2.0;
-            return VideoProcessor.blendFrames(VideoProcessor.createBlankFrame(width, height), rotatedFrame2, alpha);
+    private void fillRotation(double progress, int width, int height, float[] mapX, float[] mapY) {
+        // Inverse of getRotationMatrix2D(center, angle, 1): rotate output coordinates by -angle
+        double radians = Math.toRadians(rotationAngle(progress));
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        for (int y = 0; y < height; y++) {
+            double dy = y - centerY;
+            for (int x = 0; x < width; x++) {
+                double dx = x - centerX;
+                int index = y * width + x;
+                mapX[index] = (float) (centerX + cos * dx - sin * dy);
+                mapY[index] = (float) (centerY + sin * dx + cos * dy);
+            }
         }
     }
+    
+    /**
+     * Rotation in degrees (counterclockwise positive, as getRotationMatrix2D) of the visible frame
+     */
+    private double rotationAngle(double progress) {
+        double easedProgress = easeInOut(progress);
+        double direction = type == TransitionType.ROTATE_COUNTERCLOCKWISE ? -1.0 : 1.0;
+        return progress < 0.5 ? direction * easedProgress * 180.0
+                              : direction * (-180.0 + easedProgress * 180.0);
+    }
 }
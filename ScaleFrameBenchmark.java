@@ -0,0 +1,104 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+/**
+ * Compares VideoProcessor.scaleFrame (one affine warp of the visible region) with the previous
+ * resize-then-crop path: PSNR between the two outputs and time per frame, for zoom-in and zoom-out
+ * factors at 720p, 1080p and 4K.
+ *
+ * Usage: java ScaleFrameBenchmark [iterations]
+ */
+public class ScaleFrameBenchmark {
+    private static final int[][] RESOLUTIONS = { { 1280, 720 }, { 1920, 1080 }, { 3840, 2160 } };
+    private static final double[] FACTORS = { 0.5, 0.8, 1.25, 1.5, 2.0 };
+
+    // Outputs that differ only by interpolation rounding score well above this
+    private static final double MIN_PSNR = 40.0;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        System.out.println("Scale Frame Benchmark");
+        System.out.println("=====================");
+        System.out.println("Iterations per measurement: " + iterations);
+        System.out.println();
+
+        boolean allPassed = true;
+        for (int[] resolution : RESOLUTIONS) {
+            allPassed &= run(resolution[0], resolution[1], iterations);
+        }
+
+        System.out.println(allPassed ? "✓ Warp output matches resize + crop" : "✗ Warp output differs from resize + crop");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(int width, int height, int iterations) {
+        System.out.println(width + "x" + height + ":");
+        Mat frame = new Mat(height, width, CV_8UC3);
+        randu(frame, new Mat(1, 1, CV_64F, new Scalar(0)), new Mat(1, 1, CV_64F, new Scalar(256)));
+        // Smooth the noise so PSNR reflects resampling, not aliasing of single-pixel detail
+        GaussianBlur(frame, frame, new Size(5, 5), 0);
+
+        Mat expected = new Mat(height, width, CV_8UC3);
+        Mat actual = new Mat(height, width, CV_8UC3);
+        boolean passed = true;
+        for (double factor : FACTORS) {
+            resizeAndCrop(frame, factor, expected);
+            VideoProcessor.scaleFrame(frame, factor, actual);
+            double psnr = PSNR(expected, actual);
+            boolean ok = psnr >= MIN_PSNR;
+            passed &= ok;
+
+            double previousMs = time(iterations, () -> resizeAndCrop(frame, factor, expected));
+            double warpMs = time(iterations, () -> VideoProcessor.scaleFrame(frame, factor, actual));
+            System.out.println(String.format("  %s %.2fx: PSNR %.1f dB, resize + crop %.3f ms, warp %.3f ms",
+                                             ok ? "✓" : "✗", factor, psnr, previousMs, warpMs));
+        }
+        System.out.println();
+
+        frame.release();
+        expected.release();
+        actual.release();
+        return passed;
+    }
+
+    /**
+     * The previous scaleFrame: resize the whole frame, then crop or letterbox the center
+     */
+    private static void resizeAndCrop(Mat frame, double scaleFactor, Mat result) {
+        int newWidth = (int)(frame.cols() * scaleFactor);
+        int newHeight = (int)(frame.rows() * scaleFactor);
+        Mat scaled = new Mat();
+        resize(frame, scaled, new Size(newWidth, newHeight));
+        if (scaleFactor <= 1.0) {
+            result.put(new Scalar(0, 0, 0, 0));
+            Rect roi = new Rect((frame.cols() - newWidth) / 2, (frame.rows() - newHeight) / 2, newWidth, newHeight);
+            scaled.copyTo(new Mat(result, roi));
+        } else {
+            Rect cropRoi = new Rect((newWidth - frame.cols()) / 2, (newHeight - frame.rows()) / 2,
+                                    frame.cols(), frame.rows());
+            new Mat(scaled, cropRoi).copyTo(result);
+        }
+        scaled.release();
+    }
+
+    /**
+     * Average milliseconds per call after a warm-up
+     */
+    private static double time(int iterations, Runnable operation) {
+        for (int i = 0; i < Math.min(5, iterations); i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1000000.0 / iterations;
+    }
+}
@@ -0,0 +1,23 @@
+import static org.bytedeco.ffmpeg.global.swscale.*;
+
+/**
+ * Scaling algorithm used by the decoder's swscale step when frames are converted
+ * to the output size and pixel format
+ */
+public enum ScalingQuality {
+    FAST(SWS_FAST_BILINEAR),   // Cheapest, slight aliasing on large downscales
+    BILINEAR(SWS_BILINEAR),    // Good default for similar input and output sizes
+    BICUBIC(SWS_BICUBIC),      // Sharper upscaling
+    AREA(SWS_AREA),            // Best for large downscales such as 4K to 720p
+    LANCZOS(SWS_LANCZOS);      // Highest quality, slowest
+
+    private final int swsFlags;
+
+    ScalingQuality(int swsFlags) {
+        this.swsFlags = swsFlags;
+    }
+
+    public int getSwsFlags() {
+        return swsFlags;
+    }
+}
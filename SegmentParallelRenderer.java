@@ -0,0 +1,335 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segment-parallel render path for VideoTransitionEngine.
+ *
+ * The output timeline is split at transition boundaries into [clip body], [transition],
+ * [clip body], ... segments. Every segment is encoded by its own recorder on a worker thread,
+ * and the segments are concatenated losslessly at the end. A transition segment only needs the
+ * trailing frames of the clip before it, so it starts as soon as that clip's body is done.
+ */
+public class SegmentParallelRenderer {
+    private final VideoTransitionEngine engine;
+    private final int parallelism;
+    private final int outputWidth;
+    private final int outputHeight;
+    private final double frameRate;
+    private final int windowSize;
+
+    private long lastWallMillis = 0;
+    private long lastSerialMillis = 0;
+    private int lastSegmentCount = 0;
+
+    public SegmentParallelRenderer(VideoTransitionEngine engine, int parallelism) {
+        this.engine = engine;
+        this.parallelism = Math.max(1, parallelism);
+        this.outputWidth = engine.getOutputWidth();
+        this.outputHeight = engine.getOutputHeight();
+        this.frameRate = engine.getFrameRate();
+        this.windowSize = engine.getTransitionFrames() / 2;
+    }
+
+    /**
+     * Render the inputs with transitions into outputPath
+     */
+    public void render(List<String> inputVideos, List<TransitionType> transitions, String outputPath) throws Exception {
+        long startTime = System.currentTimeMillis();
+        File workDir = Files.createTempDirectory("segment_render").toFile();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<CompletableFuture<SegmentResult>> segmentFutures = new ArrayList<>();
+        List<SegmentResult> results = new ArrayList<>();
+        List<BodyResult> bodyResults = new ArrayList<>();
+
+        System.out.println("Segment-parallel render: " + (inputVideos.size() * 2 - 1) +
+                           " segments on " + parallelism + " threads...");
+
+        try {
+            for (int i = 0; i < inputVideos.size(); i++) {
+                final int clipIndex = i;
+                final boolean isLast = i == inputVideos.size() - 1;
+                final File bodyFile = new File(workDir, String.format("segment_%03d_body.ts", i));
+                final BodyResult bodyResult = new BodyResult();
+                bodyResults.add(bodyResult);
+
+                CompletableFuture<SegmentResult> body = CompletableFuture.supplyAsync(
+                    () -> renderBody(inputVideos, clipIndex, isLast, bodyFile, bodyResult), executor);
+                segmentFutures.add(body);
+
+                if (!isLast) {
+                    File transitionFile = new File(workDir, String.format("segment_%03d_transition.ts", i));
+                    segmentFutures.add(body.thenApplyAsync(
+                        done -> renderTransition(bodyResult, inputVideos, clipIndex + 1,
+                                                 transitions.get(clipIndex), transitionFile), executor));
+                }
+            }
+
+            List<File> segmentFiles = new ArrayList<>();
+            for (CompletableFuture<SegmentResult> future : segmentFutures) {
+                SegmentResult result = future.join();
+                results.add(result);
+                if (result.frames > 0) {
+                    segmentFiles.add(result.file);
+                }
+            }
+
+            SegmentStitcher.concat(segmentFiles, outputPath);
+        } catch (java.util.concurrent.CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            // Let running segments stop before removing their files and frames
+            executor.shutdownNow();
+            awaitTermination(executor);
+            for (BodyResult bodyResult : bodyResults) {
+                // Tails of bodies whose transition never ran
+                recycleAll(bodyResult.tail);
+            }
+            File[] files = workDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            workDir.delete();
+        }
+
+        lastWallMillis = System.currentTimeMillis() - startTime;
+        lastSerialMillis = 0;
+        for (SegmentResult result : results) {
+            lastSerialMillis += result.millis;
+        }
+        lastSegmentCount = results.size();
+
+        System.out.println(getReport());
+    }
+
+    /**
+     * Encode a clip body. The trailing frames reserved for the outgoing transition are left in bodyResult.
+     */
+    private SegmentResult renderBody(List<String> inputVideos, int clipIndex, boolean isLast, File file,
+                                     BodyResult bodyResult) {
+        String videoPath = inputVideos.get(clipIndex);
+        long start = System.currentTimeMillis();
+        SegmentSink sink = new SegmentSink(file);
+        int window = isLast ? 0 : windowSize;
+        ArrayDeque<Mat> tail = new ArrayDeque<>(window + 1);
+
+        try {
+            int framesWritten = 0;
+            int clipFrames = 0;
+
+            // Each concurrent body holds its tail window until the junctions are rendered, so nothing
+            // frees memory for a body that waits here; make what room we can and carry on
+            MemoryGovernor memoryGovernor = engine.getMemoryGovernor();
+            if (memoryGovernor != null) {
+                memoryGovernor.reclaimCapacity(engine.getFrameBytes() * (window + 1));
+            }
+
+            try (ClipFrameReader reader = engine.openClip(inputVideos, clipIndex)) {
+                Mat frame;
+                while ((frame = reader.nextFrame()) != null) {
+                    framesWritten += engine.pushToTail(tail, frame, window, sink);
+                    clipFrames++;
+                }
+            }
+
+            if (clipFrames == 0) {
+                System.out.println("Warning: No frames found in video " + videoPath);
+                framesWritten += engine.pushToTail(tail, engine.createBlankOutputFrame(),
+                                                   window, sink);
+            }
+
+            // Short clips still contribute their first frame before the transition
+            if (!isLast && framesWritten == 0 && !tail.isEmpty()) {
+                sink.write(tail.peekFirst().clone());
+            }
+
+            SegmentResult result = new SegmentResult(file, sink.close(), System.currentTimeMillis() - start);
+            bodyResult.tail = new ArrayList<>(tail);
+            return result;
+        } catch (Exception e) {
+            sink.close();
+            recycleAll(tail);
+            throw new RuntimeException("Failed to render body of " + videoPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encode the transition between a finished clip's tail and the head of the next clip
+     */
+    private SegmentResult renderTransition(BodyResult bodyResult, List<String> inputVideos, int nextClipIndex,
+                                           TransitionType transition, File file) {
+        // This segment owns the tail from here on
+        List<Mat> tail = bodyResult.tail;
+        bodyResult.tail = null;
+        long start = System.currentTimeMillis();
+        SegmentSink sink = new SegmentSink(file);
+        List<Mat> head = new ArrayList<>();
+
+        try {
+            try (ClipFrameReader reader = engine.openClip(inputVideos, nextClipIndex)) {
+                head = reader.readFrames(windowSize);
+            }
+            if (head.isEmpty() && windowSize > 0) {
+                head.add(engine.createBlankOutputFrame());
+            }
+
+            engine.writeTransitionFrames(tail, head, transition, sink);
+            return new SegmentResult(file, sink.close(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            sink.close();
+            throw new RuntimeException("Failed to render transition " + transition + ": " + e.getMessage(), e);
+        } finally {
+            recycleAll(tail);
+            recycleAll(head);
+        }
+    }
+
+    private void recycleAll(Iterable<Mat> frames) {
+        if (frames == null) {
+            return;
+        }
+        for (Mat frame : frames) {
+            engine.getFramePool().recycle(frame);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Render the same job at each thread count and report the speedup curve relative to one thread
+     * @return Wall time in milliseconds per thread count
+     */
+    public static Map<Integer, Long> benchmark(VideoTransitionEngine engine, List<String> inputVideos,
+                                               List<TransitionType> transitions, String outputPath,
+                                               int... threadCounts) throws Exception {
+        Map<Integer, Long> wallTimes = new LinkedHashMap<>();
+        for (int threads : threadCounts) {
+            SegmentParallelRenderer renderer = new SegmentParallelRenderer(engine, threads);
+            renderer.render(inputVideos, transitions, outputPath);
+            wallTimes.put(threads, renderer.getLastWallMillis());
+        }
+
+        Long baseline = wallTimes.get(1);
+        System.out.println("Segment-parallel speedup by thread count:");
+        for (Map.Entry<Integer, Long> entry : wallTimes.entrySet()) {
+            String speedup = baseline != null && entry.getValue() > 0 ?
+                String.format("%.2fx", (double) baseline / entry.getValue()) : "n/a";
+            System.out.println(String.format("  %3d threads: %7d ms  speedup %s", entry.getKey(), entry.getValue(), speedup));
+        }
+        return wallTimes;
+    }
+
+    public String getReport() {
+        double speedup = lastWallMillis > 0 ? (double) lastSerialMillis / lastWallMillis : 0.0;
+        return String.format("Segment-parallel report: %d segments on %d threads (%d cores available), " +
+                             "wall %d ms, summed segment time %d ms, effective speedup %.2fx",
+                             lastSegmentCount, parallelism, Runtime.getRuntime().availableProcessors(),
+                             lastWallMillis, lastSerialMillis, speedup);
+    }
+
+    public long getLastWallMillis() {
+        return lastWallMillis;
+    }
+
+    public long getLastSerialMillis() {
+        return lastSerialMillis;
+    }
+
+    /**
+     * Frame sink writing one segment file. The recorder is only started on the first frame,
+     * so empty segments produce no file.
+     */
+    private class SegmentSink implements FrameSink {
+        private final File file;
+        private FFmpegFrameRecorder recorder = null;
+        private long frames = 0;
+
+        SegmentSink(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(Mat frame) throws Exception {
+            if (recorder == null) {
+                recorder = new FFmpegFrameRecorder(file.getAbsolutePath(), outputWidth, outputHeight);
+                recorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
+                recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+                recorder.setFrameRate(frameRate);
+                recorder.setFormat("mpegts");
+                recorder.start();
+            }
+            if (engine.isYuv420Mode()) {
+                Yuv420Frames.record(recorder, frame);
+            } else {
+                recorder.record(FrameBridge.toFrame(frame));
+            }
+            engine.getFramePool().recycle(frame);
+            frames++;
+        }
+
+        /**
+         * Finish the segment
+         * @return Number of frames written
+         */
+        long close() {
+            if (recorder != null) {
+                try {
+                    recorder.stop();
+                    recorder.release();
+                } catch (Exception e) {
+                    System.err.println("Error closing segment " + file.getName() + ": " + e.getMessage());
+                }
+                recorder = null;
+            }
+            return frames;
+        }
+    }
+
+    /**
+     * Tail frames handed from a body segment to the following transition segment
+     */
+    private static class BodyResult {
+        volatile List<Mat> tail = new ArrayList<>();
+    }
+
+    private static class SegmentResult {
+        final File file;
+        final long frames;
+        final long millis;
+
+        SegmentResult(File file, long frames, long millis) {
+            this.file = file;
+            this.frames = frames;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Losslessly concatenates encoded segments into a single MP4 using the FFmpeg concat demuxer.
+ * Uses the ffmpeg binary bundled with JavaCV, falling back to ffmpeg on the PATH.
+ */
+public class SegmentStitcher {
+
+    /**
+     * Concatenate segments in order into outputPath without re-encoding
+     */
+    public static void concat(List<File> segments, String outputPath) throws Exception {
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("No segments to stitch");
+        }
+
+        File listFile = new File(segments.get(0).getParentFile(), "segments.txt");
+        try (PrintWriter writer = new PrintWriter(listFile)) {
+            for (File segment : segments) {
+                writer.println("file '" + segment.getAbsolutePath().replace("\\", "/") + "'");
+            }
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(findFFmpeg());
+        command.add("-y");
+        command.add("-loglevel");
+        command.add("error");
+        command.add("-f");
+        command.add("concat");
+        command.add("-safe");
+        command.add("0");
+        command.add("-i");
+        command.add(listFile.getAbsolutePath());
+        command.add("-c");
+        command.add("copy");
+        command.add("-movflags");
+        command.add("+faststart");
+        command.add(outputPath);
+
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int exitCode = process.waitFor();
+        listFile.delete();
+
+        if (exitCode != 0 || !new File(outputPath).exists()) {
+            throw new Exception("FFmpeg concat failed with exit code " + exitCode);
+        }
+    }
+
+    /**
+     * Locate an ffmpeg executable
+     */
+    static String findFFmpeg() {
+        try {
+            Class<?> ffmpegClass = Class.forName("org.bytedeco.ffmpeg.ffmpeg");
+            return org.bytedeco.javacpp.Loader.load(ffmpegClass);
+        } catch (Throwable t) {
+            return "ffmpeg";
+        }
+    }
+}
@@ -5,7 +5,6 @@ import static org.bytedeco.opencv.global.opencv_core.*;
 import static org.bytedeco.opencv.global.opencv_imgproc.*;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -59,8 +58,8 @@ public class SimpleVideoCombiner {
             String video2Path = videoFiles[1].getAbsolutePath();
             
             System.out.println("Loading video frames...");
-            List<Mat> video1Frames = loadVideo(video1Path, "Video 1");
-            List<Mat> video2Frames = loadVideo(video2Path, "Video 2");
+            CompressedFrameStore video1Frames = loadVideo(video1Path, "Video 1");
+            CompressedFrameStore video2Frames = loadVideo(video2Path, "Video 2");
             
             if (video1Frames.isEmpty() || video2Frames.isEmpty()) {
                 System.err.println("ERROR: Failed to load videos");
@@ -93,8 +92,8 @@ public class SimpleVideoCombiner {
     /**
      * Load video frames
      */
-    private List<Mat> loadVideo(String videoPath, String name) {
-        List<Mat> frames = new ArrayList<>();
+    private CompressedFrameStore loadVideo(String videoPath, String name) {
+        CompressedFrameStore frames = new CompressedFrameStore();
         FFmpegFrameGrabber grabber = null;
         
         try {
@@ -115,6 +114,7 @@ public class SimpleVideoCombiner {
                         Mat resized = new Mat();
                         resize(mat, resized, new Size(WIDTH, HEIGHT));
                         frames.add(resized);
+                        resized.release();
                         count++;
                         mat.release();
                     }
@@ -660,11 +660,8 @@ public class SimpleVideoCombiner {
     /**
      * Cleanup frames
      */
-    private void cleanupFrames(List<Mat> frames) {
-        for (Mat frame : frames) {
-            if (frame != null && !frame.empty()) {
-                frame.release();
-            }
-        }
+    private void cleanupFrames(CompressedFrameStore frames) {
+        System.out.println("  " + frames.getReport());
+        frames.close();
     }
 }
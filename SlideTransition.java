@@ -14,30 +14,37 @@ public class SlideTransition extends BaseTransition {
     }
     
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         switch (type) {
             case SLIDE_LEFT:
-                return slideLeft(frame1, frame2, progress);
+                slideLeft(frame1, frame2, progress, destination);
+                break;
             case SLIDE_RIGHT:
-                return slideRight(frame1, frame2, progress);
+                slideRight(frame1, frame2, progress, destination);
+                break;
             case SLIDE_UP:
-                return slideUp(frame1, frame2, progress);
+                slideUp(frame1, frame2, progress, destination);
+                break;
             case SLIDE_DOWN:
-                return slideDown(frame1, frame2, progress);
+                slideDown(frame1, frame2, progress, destination);
+                break;
             case PUSH_LEFT:
-                return pushLeft(frame1, frame2, progress);
+                pushLeft(frame1, frame2, progress, destination);
+                break;
             case PUSH_RIGHT:
-                return pushRight(frame1, frame2, progress);
+                pushRight(frame1, frame2, progress, destination);
+                break;
             default:
-                return slideLeft(frame1, frame2, progress);
+                slideLeft(frame1, frame2, progress, destination);
+                break;
         }
     }
     
     /**
      * Slide left - new frame slides in from right
      */
-    private Mat slideLeft(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void slideLeft(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(width * easedProgress);
         
@@ -54,15 +61,13 @@ public class SlideTransition extends BaseTransition {
             Rect resultRoi2 = new Rect(width - offset, 0, offset, height);
             new Mat(frame2, frame2Roi).copyTo(new Mat(result, resultRoi2));
         }
-        
-        return result;
     }
     
     /**
      * Slide right - new frame slides in from left
      */
-    private Mat slideRight(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void slideRight(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(width * easedProgress);
         
@@ -79,15 +84,13 @@ public class SlideTransition extends BaseTransition {
             Rect resultRoi2 = new Rect(0, 0, offset, height);
             new Mat(frame2, frame2Roi).copyTo(new Mat(result, resultRoi2));
         }
-        
-        return result;
     }
     
     /**
      * Slide up - new frame slides in from bottom
      */
-    private Mat slideUp(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void slideUp(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(height * easedProgress);
         
@@ -104,15 +107,13 @@ public class SlideTransition extends BaseTransition {
             Rect resultRoi2 = new Rect(0, height - offset, width, offset);
             new Mat(frame2, frame2Roi).copyTo(new Mat(result, resultRoi2));
         }
-        
-        return result;
     }
     
     /**
      * Slide down - new frame slides in from top
      */
-    private Mat slideDown(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void slideDown(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(height * easedProgress);
         
@@ -129,15 +130,13 @@ public class SlideTransition extends BaseTransition {
             Rect resultRoi2 = new Rect(0, 0, width, offset);
             new Mat(frame2, frame2Roi).copyTo(new Mat(result, resultRoi2));
         }
-        
-        return result;
     }
     
     /**
      * Push left - both frames move left together
      */
-    private Mat pushLeft(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void pushLeft(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(width * easedProgress);
         
@@ -161,15 +160,13 @@ public class SlideTransition extends BaseTransition {
                 new Mat(frame2, adjustedFrame2Roi).copyTo(new Mat(result, adjustedResultRoi2));
             }
         }
-        
-        return result;
     }
     
     /**
      * Push right - both frames move right together
      */
-    private Mat pushRight(Mat frame1, Mat frame2, double progress) {
-        Mat result = VideoProcessor.createBlankFrame(width, height);
+    private void pushRight(Mat frame1, Mat frame2, double progress, Mat result) {
+        clearFrame(result);
         double easedProgress = easeInOut(progress);
         int offset = (int)(width * easedProgress);
         
@@ -186,7 +183,5 @@ public class SlideTransition extends BaseTransition {
             Rect resultRoi2 = new Rect(0, 0, offset, height);
             new Mat(frame2, frame2Roi).copyTo(new Mat(result, resultRoi2));
         }
-        
-        return result;
     }
 }
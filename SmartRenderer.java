@@ -0,0 +1,272 @@
+import org.bytedeco.javacv.*;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.opencv.opencv_core.Mat;
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Smart-render path for VideoTransitionEngine.
+ *
+ * Clip bodies pass through unchanged, so for inputs that already match the output codec, profile,
+ * pixel format, resolution and frame rate their packets are remuxed as-is. Only the frames from the last
+ * keyframe before each transition window onwards are decoded and re-encoded. All segments
+ * are then stitched losslessly into the output MP4.
+ *
+ * Inputs that do not match the output format are re-encoded in full, so mixed jobs still work.
+ */
+public class SmartRenderer {
+    private final VideoTransitionEngine engine;
+    private final int outputWidth;
+    private final int outputHeight;
+    private final double frameRate;
+    private final int windowSize;
+
+    // Re-encoded segments use these, so remuxed packets must match them for the stitched stream to be uniform
+    private static final int OUTPUT_PIXEL_FORMAT = avutil.AV_PIX_FMT_YUV420P;
+    private static final int OUTPUT_PROFILE = avcodec.FF_PROFILE_H264_HIGH;
+    private static final String OUTPUT_PROFILE_NAME = "high";
+
+    private long packetsCopied = 0;
+    private long framesEncoded = 0;
+
+    public SmartRenderer(VideoTransitionEngine engine) {
+        this.engine = engine;
+        this.outputWidth = engine.getOutputWidth();
+        this.outputHeight = engine.getOutputHeight();
+        this.frameRate = engine.getFrameRate();
+        this.windowSize = engine.getTransitionFrames() / 2;
+    }
+
+    /**
+     * Render the inputs with transitions into outputPath
+     */
+    public void render(List<String> inputVideos, List<TransitionType> transitions, String outputPath) throws Exception {
+        long startTime = System.currentTimeMillis();
+        File workDir = Files.createTempDirectory("smart_render").toFile();
+        List<File> segments = new ArrayList<>();
+
+        System.out.println("Smart render: copying untouched clip bodies, re-encoding transition windows...");
+
+        try {
+            List<KeyframeIndex> indexes = ClipIngest.loadAll(inputVideos.size(), engine.getIngestConcurrency(),
+                                                             i -> probe(inputVideos.get(i)));
+
+            for (int i = 0; i < inputVideos.size(); i++) {
+                String videoPath = inputVideos.get(i);
+                boolean isLast = i == inputVideos.size() - 1;
+                KeyframeIndex index = indexes.get(i);
+
+                // Frames [0, copyEnd) are remuxed, [copyEnd, end) are re-encoded
+                long copyEnd = 0;
+                int stopKeyframe = -1;
+                ClipRange range = engine.getClipRange(i);
+                if (range != null && !range.isFullClip()) {
+                    System.out.println("  Video " + (i + 1) + " is trimmed, re-encoding its selected range");
+                } else if (isCopyEligible(index)) {
+                    if (isLast) {
+                        copyEnd = index.getPacketCount();
+                    } else {
+                        stopKeyframe = index.findKeyframeAtOrBefore(index.getPacketCount() - windowSize);
+                        copyEnd = stopKeyframe >= 0 ? index.getKeyframeFrame(stopKeyframe) : 0;
+                    }
+                } else {
+                    System.out.println("  Video " + (i + 1) + " does not match the output format, re-encoding it fully");
+                }
+
+                if (copyEnd > 0) {
+                    File segment = nextSegmentFile(workDir, segments);
+                    packetsCopied += copyPackets(videoPath, stopKeyframe, segment);
+                    segments.add(segment);
+                }
+
+                if (!isLast || copyEnd == 0) {
+                    long startMicros = copyEnd > 0 ? index.getKeyframeTimestamp(stopKeyframe) : 0;
+                    TransitionType transition = isLast ? null : transitions.get(i);
+
+                    File segment = nextSegmentFile(workDir, segments);
+                    encodeSegment(inputVideos, i, copyEnd, startMicros, transition, segment);
+                    segments.add(segment);
+                }
+            }
+
+            SegmentStitcher.concat(segments, outputPath);
+        } finally {
+            for (File segment : segments) {
+                segment.delete();
+            }
+            workDir.delete();
+        }
+
+        System.out.println(String.format("Smart render finished in %d ms: %d packets stream-copied, %d frames re-encoded",
+                                         System.currentTimeMillis() - startTime, packetsCopied, framesEncoded));
+    }
+
+    private KeyframeIndex probe(String videoPath) {
+        try {
+            return KeyframeIndex.forVideo(videoPath);
+        } catch (Exception e) {
+            System.err.println("Warning: Could not index " + videoPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A clip can be remuxed when its stream is already what the encoder would produce
+     */
+    private boolean isCopyEligible(KeyframeIndex index) {
+        return index != null
+            && index.getVideoCodec() == avcodec.AV_CODEC_ID_H264
+            && index.getPixelFormat() == OUTPUT_PIXEL_FORMAT
+            && index.getProfile() == OUTPUT_PROFILE
+            && index.getWidth() == outputWidth
+            && index.getHeight() == outputHeight
+            && Math.abs(index.getFrameRate() - frameRate) < 0.01
+            && index.getPacketCount() > windowSize;
+    }
+
+    /**
+     * Remux video packets up to (not including) the given keyframe, or the whole clip when stopKeyframe is -1
+     * @return Number of packets copied
+     */
+    private long copyPackets(String videoPath, int stopKeyframe, File segment) throws Exception {
+        FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoPath);
+        grabber.start();
+        FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(segment.getAbsolutePath(),
+                                                               grabber.getImageWidth(), grabber.getImageHeight(), 0);
+        long copied = 0;
+
+        try {
+            recorder.setFormat("mpegts");
+            recorder.setVideoCodec(grabber.getVideoCodec());
+            recorder.setFrameRate(grabber.getFrameRate());
+            recorder.start(grabber.getFormatContext());
+
+            int videoStream = grabber.getVideoStream();
+            int keyframesSeen = 0;
+
+            AVPacket packet;
+            while ((packet = grabber.grabPacket()) != null) {
+                if (packet.stream_index() != videoStream) {
+                    continue;
+                }
+                if ((packet.flags() & AV_PKT_FLAG_KEY) != 0) {
+                    if (keyframesSeen == stopKeyframe) {
+                        break;
+                    }
+                    keyframesSeen++;
+                }
+                recorder.recordPacket(packet);
+                copied++;
+            }
+        } finally {
+            recorder.stop();
+            recorder.release();
+            grabber.stop();
+        }
+
+        return copied;
+    }
+
+    /**
+     * Re-encode a clip from startFrame to its end, followed by the transition into the next clip when given
+     */
+    private void encodeSegment(List<String> inputVideos, int clipIndex, long startFrame, long startMicros,
+                               TransitionType transition, File segment) throws Exception {
+        String videoPath = inputVideos.get(clipIndex);
+        FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(segment.getAbsolutePath(), outputWidth, outputHeight);
+        recorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
+        recorder.setPixelFormat(OUTPUT_PIXEL_FORMAT);
+        recorder.setVideoOption("profile", OUTPUT_PROFILE_NAME);
+        recorder.setFrameRate(frameRate);
+        recorder.setFormat("mpegts");
+        recorder.start();
+
+        RecorderFrameSink recorderSink = new RecorderFrameSink(recorder, engine.getFramePool())
+            .setYuv420(engine.isYuv420Mode());
+        FrameSink sink = new FrameSink() {
+            @Override
+            public void write(Mat frame) throws Exception {
+                recorderSink.write(frame);
+                framesEncoded++;
+            }
+        };
+
+        int window = transition != null ? windowSize : 0;
+        ArrayDeque<Mat> tail = new ArrayDeque<>(window + 1);
+
+        try {
+            int framesWritten = 0;
+            int clipFrames = 0;
+
+            try (ClipFrameReader reader = engine.openClip(inputVideos, clipIndex)) {
+                if (startFrame > 0) {
+                    reader.seekToTimestamp(startMicros);
+                }
+                Mat frame;
+                while ((frame = reader.nextFrame()) != null) {
+                    framesWritten += engine.pushToTail(tail, frame, window, sink);
+                    clipFrames++;
+                }
+            }
+
+            if (clipFrames == 0 && startFrame == 0) {
+                System.out.println("Warning: No frames found in video " + videoPath);
+                framesWritten += engine.pushToTail(tail, engine.createBlankOutputFrame(),
+                                                   window, sink);
+            }
+
+            if (transition == null) {
+                while (!tail.isEmpty()) {
+                    sink.write(tail.pollFirst());
+                }
+                return;
+            }
+
+            // Short clips still contribute their first frame before the transition
+            if (framesWritten == 0 && startFrame == 0 && !tail.isEmpty()) {
+                sink.write(tail.peekFirst().clone());
+            }
+
+            List<Mat> head;
+            try (ClipFrameReader nextReader = engine.openClip(inputVideos, clipIndex + 1)) {
+                head = nextReader.readFrames(windowSize);
+            }
+            if (head.isEmpty() && windowSize > 0) {
+                head.add(engine.createBlankOutputFrame());
+            }
+
+            System.out.println("  Re-encoding transition: " + transition);
+            engine.writeTransitionFrames(new ArrayList<>(tail), head, transition, sink);
+
+            // The next clip's body is rendered from its own segment, so the head is not kept
+            for (Mat used : head) {
+                used.release();
+            }
+        } finally {
+            for (Mat used : tail) {
+                used.release();
+            }
+            recorder.stop();
+            recorder.release();
+        }
+    }
+
+    private File nextSegmentFile(File workDir, List<File> segments) {
+        return new File(workDir, String.format("segment_%03d.ts", segments.size()));
+    }
+
+    public long getFramesCopied() {
+        return framesCopied;
+    }
+
+    public long getFramesEncoded() {
+        return framesEncoded;
+    }
+}
@@ -36,12 +36,19 @@ public class TransitionDemo {
             TransitionType.WIPE_UP,
             TransitionType.WIPE_DOWN,
             TransitionType.WIPE_CIRCLE,
+            TransitionType.WIPE_DIAGONAL,
+            TransitionType.WIPE_SPIRAL,
+            TransitionType.WIPE_MOSAIC,
             TransitionType.IRIS_IN,
             TransitionType.IRIS_OUT,
+            TransitionType.LUMA_MATTE,
             TransitionType.ZOOM_IN,
             TransitionType.ZOOM_OUT,
             TransitionType.ROTATE_CLOCKWISE,
             TransitionType.ROTATE_COUNTERCLOCKWISE,
+            TransitionType.CUBE_LEFT,
+            TransitionType.CUBE_RIGHT,
+            TransitionType.PAGE_CURL,
             TransitionType.BLUR_TRANSITION,
             TransitionType.PIXELATE_TRANSITION
         };
@@ -19,6 +19,9 @@ public enum TransitionType {
     WIPE_UP,
     WIPE_DOWN,
     WIPE_CIRCLE,
+    WIPE_DIAGONAL,
+    WIPE_SPIRAL,
+    WIPE_MOSAIC,
 
     // Zoom transitions
     ZOOM_IN,
@@ -28,6 +31,11 @@ public enum TransitionType {
     ROTATE_CLOCKWISE,
     ROTATE_COUNTERCLOCKWISE,
 
+    // 3D transitions
+    CUBE_LEFT,
+    CUBE_RIGHT,
+    PAGE_CURL,
+
     // Effect transitions
     BLUR_TRANSITION,
     PIXELATE_TRANSITION,
@@ -38,6 +46,7 @@ public enum TransitionType {
     PUSH_RIGHT,
     IRIS_IN,
     IRIS_OUT,
+    LUMA_MATTE,
 
     // AI-Powered Object-Aware Transitions
     OBJECT_REVEAL,
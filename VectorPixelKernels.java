@@ -0,0 +1,126 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 8-bit pixel kernels on the JDK Vector API, loading from and storing to the direct ByteBuffers over the
+ * native data of continuous Mats, so each pass touches every byte once.
+ *
+ * Bytes are widened to 16-bit lanes and blended in fixed point, so no float intermediates are created:
+ * - blend: (a * w + b * (256 - w) + 128) >> 8 with an 8.8 weight
+ * - blendWithMask: round((a * m + b * (255 - m)) / 255) with the exact divide-by-255 trick, the mask
+ *   byte being shuffled across the channels of its pixel in the same pass
+ * All intermediate sums stay below 2^16, so they are exact in unsigned 16-bit lanes.
+ *
+ * Needs --add-modules jdk.incubator.vector. Only PixelKernels touches this class, after checking that
+ * the module is present, so the rest of the engine loads without it.
+ */
+final class VectorPixelKernels {
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = SHORTS.vectorBitSize() >= 128
+        ? VectorSpecies.of(byte.class, VectorShape.forBitSize(SHORTS.vectorBitSize() / 2))
+        : ByteVector.SPECIES_64;
+    private static final int LANES = SHORTS.length();
+    private static final int MAX_CHANNELS = 4;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    // Per channel count, the shuffle spreading one mask lane per pixel over the k-th vector of channel bytes
+    private static final VectorShuffle<Short>[][] MASK_SHUFFLES = createMaskShuffles();
+
+    private VectorPixelKernels() {}
+
+    /**
+     * Whether the platform has SIMD registers wide enough to be worth using
+     */
+    static boolean isSupported() {
+        return SHORTS.vectorBitSize() >= 128 && BYTES.length() == LANES;
+    }
+
+    static String describe() {
+        return LANES + " x 16-bit lanes (" + SHORTS.vectorBitSize() + "-bit)";
+    }
+
+    static boolean supportsChannels(int channels) {
+        return channels >= 1 && channels <= MAX_CHANNELS;
+    }
+
+    /**
+     * dst = a * weight / 256 + b * (256 - weight) / 256, rounded
+     * @param weight Weight of a in 1/256 steps (0-256)
+     */
+    static void blend(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length, int weight) {
+        short weightA = (short) weight;
+        short weightB = (short) (256 - weight);
+        int i = 0;
+        for (; i <= length - LANES; i += LANES) {
+            ShortVector sum = load(a, i).mul(weightA)
+                .add(load(b, i).mul(weightB))
+                .add((short) 128);
+            store(sum.lanewise(VectorOperators.LSHR, 8), dst, i);
+        }
+        for (; i < length; i++) {
+            int sum = (a.get(i) & 0xFF) * weight + (b.get(i) & 0xFF) * (256 - weight) + 128;
+            dst.put(i, (byte) (sum >>> 8));
+        }
+    }
+
+    /**
+     * dst = a * mask / 255 + b * (255 - mask) / 255, rounded, with one mask byte per pixel
+     */
+    static void blendWithMask(ByteBuffer a, ByteBuffer b, ByteBuffer mask, ByteBuffer dst,
+                              int pixels, int channels) {
+        VectorShuffle<Short>[] shuffles = MASK_SHUFFLES[channels];
+        int p = 0;
+        for (; p <= pixels - LANES; p += LANES) {
+            ShortVector weights = load(mask, p);
+            int base = p * channels;
+            for (int k = 0; k < channels; k++) {
+                ShortVector weightA = channels == 1 ? weights : weights.rearrange(shuffles[k]);
+                ShortVector weightB = weightA.neg().add((short) 255);
+                int offset = base + k * LANES;
+                ShortVector sum = load(a, offset).mul(weightA)
+                    .add(load(b, offset).mul(weightB))
+                    .add((short) 128);
+                store(sum.add(sum.lanewise(VectorOperators.LSHR, 8)).lanewise(VectorOperators.LSHR, 8), dst, offset);
+            }
+        }
+        for (; p < pixels; p++) {
+            int weight = mask.get(p) & 0xFF;
+            for (int k = 0; k < channels; k++) {
+                int offset = p * channels + k;
+                int sum = (a.get(offset) & 0xFF) * weight + (b.get(offset) & 0xFF) * (255 - weight) + 128;
+                dst.put(offset, (byte) ((sum + (sum >>> 8)) >>> 8));
+            }
+        }
+    }
+
+    private static ShortVector load(ByteBuffer data, int offset) {
+        ShortVector widened = (ShortVector) ByteVector.fromByteBuffer(BYTES, data, offset, ORDER)
+            .convertShape(VectorOperators.B2S, SHORTS, 0);
+        return widened.and((short) 0xFF);
+    }
+
+    private static void store(ShortVector vector, ByteBuffer data, int offset) {
+        ((ByteVector) vector.convertShape(VectorOperators.S2B, BYTES, 0)).intoByteBuffer(data, offset, ORDER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VectorShuffle<Short>[][] createMaskShuffles() {
+        VectorShuffle<Short>[][] shuffles = (VectorShuffle<Short>[][]) new VectorShuffle<?>[MAX_CHANNELS + 1][];
+        for (int channels = 1; channels <= MAX_CHANNELS; channels++) {
+            shuffles[channels] = (VectorShuffle<Short>[]) new VectorShuffle<?>[channels];
+            for (int k = 0; k < channels; k++) {
+                int first = k * LANES;
+                int perPixel = channels;
+                shuffles[channels][k] = VectorShuffle.fromOp(SHORTS, i -> (first + i) / perPixel);
+            }
+        }
+        return shuffles;
+    }
+}
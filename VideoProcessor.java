@@ -1,3 +1,4 @@
+import org.bytedeco.javacpp.DoublePointer;
 import org.bytedeco.javacv.*;
 import org.bytedeco.opencv.opencv_core.*;
 import org.bytedeco.opencv.global.opencv_core.*;
@@ -20,19 +21,41 @@ public class VideoProcessor {
     }
 
     /**
-     * Convert Frame to Mat
+     * Resize a frame into an existing destination buffer
+     */
+    public static void resizeFrame(Mat frame, Mat destination, int width, int height) {
+        resize(frame, destination, new Size(width, height));
+    }
+
+    /**
+     * Copy a frame that is already at the output size into destination (a new Mat when null),
+     * resizing only when its dimensions differ
+     * @return The destination holding the frame
+     */
+    public static Mat copyToSize(Mat frame, Mat destination, int width, int height) {
+        if (destination == null) {
+            destination = new Mat();
+        }
+        if (frame.cols() == width && frame.rows() == height) {
+            frame.copyTo(destination);
+        } else {
+            resize(frame, destination, new Size(width, height));
+        }
+        return destination;
+    }
+
+    /**
+     * Convert Frame to Mat without copying (see FrameBridge)
      */
     public static Mat frameToMat(Frame frame) {
-        OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
-        return converter.convert(frame);
+        return FrameBridge.toMat(frame);
     }
 
     /**
-     * Convert Mat to Frame
+     * Convert Mat to Frame without copying (see FrameBridge)
      */
     public static Frame matToFrame(Mat mat) {
-        OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
-        return converter.convert(mat);
+        return FrameBridge.toFrame(mat);
     }
 
     /**
@@ -47,19 +70,33 @@ public class VideoProcessor {
      */
     public static Mat blendFrames(Mat frame1, Mat frame2, double alpha) {
         Mat result = new Mat();
-        addWeighted(frame1, alpha, frame2, 1.0 - alpha, 0, result);
+        blendFrames(frame1, frame2, alpha, result);
         return result;
     }
 
+    /**
+     * Blend two frames with specified alpha into an existing buffer, on the selected pixel-kernel backend
+     */
+    public static void blendFrames(Mat frame1, Mat frame2, double alpha, Mat result) {
+        PixelKernels.blend(frame1, frame2, alpha, result);
+    }
+
     /**
      * Apply Gaussian blur to frame
      */
     public static Mat applyBlur(Mat frame, int kernelSize) {
         Mat blurred = new Mat();
-        GaussianBlur(frame, blurred, new Size(kernelSize, kernelSize), 0);
+        applyBlur(frame, kernelSize, blurred);
         return blurred;
     }
 
+    /**
+     * Apply Gaussian blur to frame into an existing buffer
+     */
+    public static void applyBlur(Mat frame, int kernelSize, Mat blurred) {
+        GaussianBlur(frame, blurred, new Size(kernelSize, kernelSize), 0);
+    }
+
     /**
      * Create a circular mask
      */
@@ -82,54 +119,92 @@ public class VideoProcessor {
      * Rotate frame by specified angle
      */
     public static Mat rotateFrame(Mat frame, double angle) {
+        Mat rotated = new Mat();
+        rotateFrame(frame, angle, rotated);
+        return rotated;
+    }
+
+    /**
+     * Rotate frame by specified angle into an existing buffer
+     */
+    public static void rotateFrame(Mat frame, double angle, Mat rotated) {
         Point2f center = new Point2f(frame.cols() / 2.0f, frame.rows() / 2.0f);
         Mat rotationMatrix = getRotationMatrix2D(center, angle, 1.0);
-        Mat rotated = new Mat();
         warpAffine(frame, rotated, rotationMatrix, new Size(frame.cols(), frame.rows()));
-        return rotated;
+        rotationMatrix.release();
     }
 
     /**
      * Scale frame by specified factor
      */
     public static Mat scaleFrame(Mat frame, double scaleFactor) {
-        int newWidth = (int)(frame.cols() * scaleFactor);
-        int newHeight = (int)(frame.rows() * scaleFactor);
-        Mat scaled = new Mat();
-        resize(frame, scaled, new Size(newWidth, newHeight));
-
-        // Center the scaled frame
-        Mat result = createBlankFrame(frame.cols(), frame.rows());
-        int offsetX = (frame.cols() - newWidth) / 2;
-        int offsetY = (frame.rows() - newHeight) / 2;
-
-        if (scaleFactor <= 1.0) {
-            // If scaling down, place in center
-            Rect roi = new Rect(offsetX, offsetY, newWidth, newHeight);
-            scaled.copyTo(new Mat(result, roi));
+        Mat result = new Mat(frame.rows(), frame.cols(), frame.type());
+        scaleFrame(frame, scaleFactor, result);
+        return result;
+    }
+
+    /**
+     * Scale frame by specified factor into an existing frame-sized buffer, keeping the center.
+     * Scaling up crops, scaling down letterboxes on black. One affine warp samples only the visible
+     * output region, so no scaled intermediate is allocated.
+     */
+    public static void scaleFrame(Mat frame, double scaleFactor, Mat result) {
+        int cols = frame.cols();
+        int rows = frame.rows();
+        int newWidth = (int)(cols * scaleFactor);
+        int newHeight = (int)(rows * scaleFactor);
+        result.create(rows, cols, frame.type());
+
+        if (newWidth <= 0 || newHeight <= 0) {
+            result.put(new Scalar(0, 0, 0, 0));
+        } else if (scaleFactor <= 1.0) {
+            // If scaling down, render into the center of a black frame
+            result.put(new Scalar(0, 0, 0, 0));
+            Rect roi = new Rect((cols - newWidth) / 2, (rows - newHeight) / 2, newWidth, newHeight);
+            warpScaled(frame, new Mat(result, roi), newWidth / (double) cols, newHeight / (double) rows, 0, 0);
         } else {
-            // If scaling up, crop from center
-            int cropX = (newWidth - frame.cols()) / 2;
-            int cropY = (newHeight - frame.rows()) / 2;
-            Rect cropRoi = new Rect(cropX, cropY, frame.cols(), frame.rows());
-            new Mat(scaled, cropRoi).copyTo(result);
+            // If scaling up, sample only the centered crop
+            int cropX = (newWidth - cols) / 2;
+            int cropY = (newHeight - rows) / 2;
+            warpScaled(frame, result, newWidth / (double) cols, newHeight / (double) rows, cropX, cropY);
         }
+    }
 
-        return result;
+    /**
+     * Fill destination with frame scaled by (scaleX, scaleY), starting at (cropX, cropY) of the scaled
+     * image. Uses the pixel-center mapping of resize(), so the result matches resizing and cropping.
+     */
+    private static void warpScaled(Mat frame, Mat destination, double scaleX, double scaleY, int cropX, int cropY) {
+        // Destination pixel (x, y) samples frame at ((x + cropX + 0.5) / scaleX - 0.5, ...)
+        DoublePointer coefficients = new DoublePointer(
+            1.0 / scaleX, 0, (cropX + 0.5) / scaleX - 0.5,
+            0, 1.0 / scaleY, (cropY + 0.5) / scaleY - 0.5);
+        Mat inverse = new Mat(2, 3, CV_64F, coefficients);
+        warpAffine(frame, destination, inverse, destination.size(), INTER_LINEAR | WARP_INVERSE_MAP,
+                   BORDER_REPLICATE, new Scalar());
+        inverse.release();
+        coefficients.deallocate();
     }
 
     /**
      * Create pixelated effect
      */
     public static Mat pixelateFrame(Mat frame, int pixelSize) {
-        Mat small = new Mat();
         Mat pixelated = new Mat();
+        pixelateFrame(frame, pixelSize, pixelated);
+        return pixelated;
+    }
+
+    /**
+     * Create pixelated effect into an existing buffer
+     */
+    public static void pixelateFrame(Mat frame, int pixelSize, Mat pixelated) {
+        Mat small = new Mat();
 
         // Downscale
         resize(frame, small, new Size(frame.cols() / pixelSize, frame.rows() / pixelSize));
         // Upscale back with nearest neighbor interpolation
         resize(small, pixelated, new Size(frame.cols(), frame.rows()), 0, 0, INTER_NEAREST);
-
-        return pixelated;
+        small.release();
     }
 }
@@ -2,9 +2,16 @@ import org.bytedeco.javacv.*;
 import org.bytedeco.opencv.opencv_core.*;
 import org.bytedeco.opencv.global.opencv_core.*;
 import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Main video transition engine for processing video files with various transition effects
@@ -15,14 +22,77 @@ public class VideoTransitionEngine {
     private double frameRate = 30.0;
     private int transitionFrames = 30; // 1 second at 30fps
 
+    // Streaming mode keeps only the transition window in memory instead of whole clips
+    private boolean streamingMode = false;
+
+    // Smart render stream-copies untouched clip bodies and re-encodes only around transitions
+    private boolean smartRenderMode = false;
+
+    // Segment-parallel mode encodes bodies and transitions as separate segments concurrently
+    private boolean segmentParallelMode = false;
+    private int segmentParallelism = Runtime.getRuntime().availableProcessors();
+
+    // Pipeline mode runs decode, render and encode on separate threads joined by bounded queues
+    private boolean pipelineMode = false;
+    private int decodeQueueDepth = 8;
+    private int encodeQueueDepth = 8;
+    private String lastPipelineReport = null;
+
+    // Number of transition frames rendered concurrently (1 = serial)
+    private int transitionParallelism = 1;
+    private ForkJoinPool renderPool = null;
+
+    // Recycled native buffers for decoded and rendered frames
+    private final FramePool framePool = new FramePool(FramePool.DEFAULT_MAX_POOLED_BYTES);
+
+    // Free each transition frame's native temporaries when it is done instead of on GC
+    private boolean scopedAllocation = true;
+
+    // Optional native memory budget; decode and prefetch wait while a job is over it
+    private MemoryGovernor memoryGovernor = null;
+    private String lastMemoryReport = null;
+
+    // Optional tracing of pooled frames that are never released
+    private MatLeakTracer leakTracer = null;
+    private String lastLeakReport = null;
+
+    // Scaling algorithm the decoder uses to produce frames at the output size
+    private ScalingQuality scalingQuality = ScalingQuality.BILINEAR;
+
+    // Keep frames in planar YUV 4:2:0 from decode to encode instead of BGR
+    private boolean yuv420Mode = false;
+
+    // Matte used by LUMA_MATTE transitions (none = luma of the outgoing frame)
+    private MatteLibrary matteLibrary = null;
+    private String lumaMatte = null;
+    private double matteSoftness = LumaMatteTransition.DEFAULT_SOFTNESS;
+
+    // Blur used by BLUR_TRANSITION
+    private FastBlur effectBlur = new FastBlur();
+
+    // Streaming mode decodes the head of the next clip in the background while the current one encodes
+    private boolean prefetchEnabled = true;
+    private int prefetchHits = 0;
+    private int prefetchStalls = 0;
+
+    // Maximum number of input clips probed or decoded at the same time
+    private int ingestConcurrency = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    // Optional in/out points per input clip
+    private final Map<Integer, ClipRange> clipRanges = new HashMap<>();
+
     // AI-powered features
     private String aiModelPath = null;
     private TransitionConfig defaultConfig = TransitionConfig.loadPreset("SMOOTH");
     private boolean enableAIFeatures = false;
 
-    public VideoTransitionEngine() {}
+    public VideoTransitionEngine() {
+        // Benchmark the pixel-kernel backends up front rather than inside the first transition
+        PixelKernels.selectBackend();
+    }
 
     public VideoTransitionEngine(int width, int height, double frameRate, int transitionFrames) {
+        this();
         this.outputWidth = width;
         this.outputHeight = height;
         this.frameRate = frameRate;
@@ -42,51 +112,106 @@ public class VideoTransitionEngine {
             throw new IllegalArgumentException("Number of transitions must be one less than number of videos");
         }
 
+        if (memoryGovernor != null) {
+            memoryGovernor.startJob(new File(outputPath).getName());
+        }
+        try {
+            renderJob(inputVideos, transitions, outputPath);
+            System.out.println(framePool.getReport());
+            System.out.println("Video processing complete: " + outputPath);
+        } finally {
+            if (memoryGovernor != null) {
+                lastMemoryReport = memoryGovernor.finishJob();
+                System.out.println(lastMemoryReport);
+            }
+            if (leakTracer != null) {
+                lastLeakReport = leakTracer.finishJob();
+                System.out.println(lastLeakReport);
+            }
+        }
+    }
+
+    /**
+     * Render a validated job using the configured mode
+     */
+    private void renderJob(List<String> inputVideos, List<TransitionType> transitions,
+                           String outputPath) throws Exception {
+        if (smartRenderMode) {
+            new SmartRenderer(this).render(inputVideos, transitions, outputPath);
+            return;
+        }
+
+        if (segmentParallelMode) {
+            new SegmentParallelRenderer(this, segmentParallelism).render(inputVideos, transitions, outputPath);
+            return;
+        }
+
         // Initialize output recorder
         FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(outputPath, outputWidth, outputHeight);
         recorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
         recorder.setFrameRate(frameRate);
         recorder.setFormat("mp4");
+        if (yuv420Mode) {
+            recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        }
         recorder.start();
 
-        OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+        if (pipelineMode) {
+            RenderPipeline pipeline = new RenderPipeline(decodeQueueDepth, encodeQueueDepth);
+            pipeline.setMemoryGovernor(memoryGovernor);
+            pipeline.setYuv420(yuv420Mode);
+            try {
+                pipeline.run(inputVideos.size(), clipIndex -> openClip(inputVideos, clipIndex), recorder,
+                             (opener, sink) -> streamVideosWithTransitions(inputVideos, transitions, opener, null, sink));
+            } finally {
+                recorder.stop();
+                lastPipelineReport = pipeline.getReport();
+                System.out.println(lastPipelineReport);
+            }
+            return;
+        }
+
+        if (streamingMode) {
+            SourceOpener opener = clipIndex -> openClip(inputVideos, clipIndex);
+            ClipPrefetcher prefetcher = prefetchEnabled ?
+                new ClipPrefetcher(opener, transitionFrames / 2, memoryGovernor, getFrameBytes()) : null;
+            try {
+                streamVideosWithTransitions(inputVideos, transitions, opener, prefetcher,
+                                            new RecorderFrameSink(recorder, framePool).setYuv420(yuv420Mode));
+            } finally {
+                recorder.stop();
+                if (prefetcher != null) {
+                    prefetcher.close();
+                    prefetchHits = prefetcher.getHits();
+                    prefetchStalls = prefetcher.getStalls();
+                    System.out.println(prefetcher.getReport());
+                }
+            }
+            return;
+        }
 
+        List<List<Mat>> allVideoFrames = null;
         try {
             // Pre-load all videos to ensure smooth transitions
             System.out.println("Pre-loading all videos for smooth transitions...");
-            List<List<Mat>> allVideoFrames = new ArrayList<>();
-            
-            for (int i = 0; i < inputVideos.size(); i++) {
+            allVideoFrames = ClipIngest.loadAll(inputVideos.size(), ingestConcurrency, i -> {
                 String videoPath = inputVideos.get(i);
                 System.out.println("Loading video " + (i + 1) + "/" + inputVideos.size() + ": " + videoPath);
                 
-                FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoPath);
-                grabber.start();
-                
-                List<Mat> frames = new ArrayList<>();
-                Frame frame;
-                
-                while ((frame = grabber.grabFrame()) != null) {
-                    if (frame.image != null) {
-                        Mat mat = converter.convert(frame);
-                        if (mat != null && !mat.empty()) {
-                            Mat resized = VideoProcessor.resizeFrame(mat, outputWidth, outputHeight);
-                            frames.add(resized);
-                        }
-                    }
+                List<Mat> frames;
+                try (ClipFrameReader reader = openClip(inputVideos, i)) {
+                    frames = reader.readFrames(Integer.MAX_VALUE);
                 }
                 
-                grabber.stop();
-                
                 if (frames.isEmpty()) {
                     System.out.println("Warning: No frames found in video " + videoPath);
                     // Add a blank frame to prevent errors
-                    frames.add(VideoProcessor.createBlankFrame(outputWidth, outputHeight));
+                    frames.add(createBlankOutputFrame());
                 }
                 
-                allVideoFrames.add(frames);
                 System.out.println("Loaded " + frames.size() + " frames from video " + (i + 1));
-            }
+                return frames;
+            });
             
             // Process each video and apply transitions
             for (int i = 0; i < allVideoFrames.size(); i++) {
@@ -101,8 +226,7 @@ public class VideoTransitionEngine {
                 
                 // Write main video frames
                 for (int j = 0; j < framesToWrite; j++) {
-                    Frame outputFrame = converter.convert(currentVideoFrames.get(j));
-                    recorder.record(outputFrame);
+                    recordFrame(recorder, currentVideoFrames.get(j));
                 }
                 
                 // Apply transition if not the last video
@@ -113,22 +237,27 @@ public class VideoTransitionEngine {
                     
                     // Apply transition between current and next video
                     applyTransitionBetweenVideos(currentVideoFrames, nextVideoFrames, 
-                                              transitions.get(i), recorder, converter);
+                                              transitions.get(i), recorder);
                 }
             }
         } finally {
             recorder.stop();
+            // Decoded clip frames come from the pool; hand them back so they are not reported as leaks
+            if (allVideoFrames != null) {
+                for (List<Mat> videoFrames : allVideoFrames) {
+                    for (Mat frame : videoFrames) {
+                        framePool.recycle(frame);
+                    }
+                }
+            }
         }
-
-        System.out.println("Video processing complete: " + outputPath);
     }
     
     /**
      * Apply transition between two videos using their pre-loaded frames
      */
     private void applyTransitionBetweenVideos(List<Mat> currentVideoFrames, List<Mat> nextVideoFrames,
-                                           TransitionType transitionType, FFmpegFrameRecorder recorder,
-                                           OpenCVFrameConverter.ToMat converter) throws Exception {
+                                           TransitionType transitionType, FFmpegFrameRecorder recorder) throws Exception {
         
         // Get last frames from current video
         List<Mat> lastFrames = new ArrayList<>();
@@ -144,46 +273,276 @@ public class VideoTransitionEngine {
             firstFrames.add(nextVideoFrames.get(i));
         }
         
+        writeTransitionFrames(lastFrames, firstFrames, transitionType,
+                              new RecorderFrameSink(recorder, framePool).setYuv420(yuv420Mode));
+    }
+
+    /**
+     * Render the transition frames for the given window of outgoing and incoming frames
+     */
+    void writeTransitionFrames(List<Mat> lastFrames, List<Mat> firstFrames,
+                               TransitionType transitionType, FrameSink sink) throws Exception {
+        
         // Create transition
-        BaseTransition transition = createTransition(transitionType);
+        BaseTransition transition = createRenderTransition(transitionType);
+        transition.setFramePool(framePool);
         
         // Generate transition frames
         int totalTransitionFrames = Math.min(transitionFrames, 
                                           lastFrames.size() + firstFrames.size());
         
+        if (transitionParallelism > 1 && totalTransitionFrames > 1) {
+            writeTransitionFramesParallel(transition, lastFrames, firstFrames, totalTransitionFrames, sink);
+            reportTransitionLeaks(transitionType);
+            return;
+        }
+        
         for (int i = 0; i < totalTransitionFrames; i++) {
-            double progress = (double) i / (totalTransitionFrames - 1);
-            
-            Mat frame1, frame2;
-            
-            // Determine which frames to use
-            if (i < lastFrames.size()) {
-                frame1 = lastFrames.get(i);
-            } else {
-                frame1 = lastFrames.get(lastFrames.size() - 1);
+            sink.write(renderTransitionFrame(transition, lastFrames, firstFrames, i, totalTransitionFrames));
+        }
+        reportTransitionLeaks(transitionType);
+    }
+
+    private void reportTransitionLeaks(TransitionType transitionType) {
+        if (leakTracer != null) {
+            System.out.println(leakTracer.checkpoint("transition " + transitionType));
+        }
+    }
+
+    /**
+     * Fork-join variant of the transition loop. Each frame depends only on its input pair and
+     * progress, so frames are rendered concurrently; results are handed to the sink strictly in
+     * frame order, keeping at most two frames per worker in flight.
+     */
+    private void writeTransitionFramesParallel(BaseTransition transition, List<Mat> lastFrames,
+                                               List<Mat> firstFrames, int totalTransitionFrames,
+                                               FrameSink sink) throws Exception {
+        ForkJoinPool pool = getRenderPool();
+        int maxInFlight = transitionParallelism * 2;
+        ArrayDeque<ForkJoinTask<Mat>> inFlight = new ArrayDeque<>();
+        int nextToSubmit = 0;
+
+        try {
+            while (nextToSubmit < totalTransitionFrames || !inFlight.isEmpty()) {
+                while (nextToSubmit < totalTransitionFrames && inFlight.size() < maxInFlight) {
+                    final int index = nextToSubmit++;
+                    inFlight.addLast(pool.submit(() ->
+                        renderTransitionFrame(transition, lastFrames, firstFrames, index, totalTransitionFrames)));
+                }
+                sink.write(inFlight.pollFirst().join());
             }
-            
-            if (i < firstFrames.size()) {
-                frame2 = firstFrames.get(i);
-            } else if (!firstFrames.isEmpty()) {
-                frame2 = firstFrames.get(firstFrames.size() - 1);
-            } else {
-                frame2 = frame1; // Fallback
+        } finally {
+            // Only reached with tasks left when rendering or writing failed
+            for (ForkJoinTask<Mat> task : inFlight) {
+                try {
+                    framePool.recycle(task.join());
+                } catch (RuntimeException e) {
+                    // Already failing, nothing more to clean up
+                }
             }
-            
-            Mat transitionFrame = transition.applyTransition(frame1, frame2, progress);
-            Frame outputFrame = converter.convert(transitionFrame);
-            recorder.record(outputFrame);
         }
     }
 
+    /**
+     * Render transition frame i of totalTransitionFrames. The returned frame is a pooled buffer
+     * that the caller owns.
+     */
+    private Mat renderTransitionFrame(BaseTransition transition, List<Mat> lastFrames, List<Mat> firstFrames,
+                                      int i, int totalTransitionFrames) {
+        double progress = (double) i / (totalTransitionFrames - 1);
+        
+        Mat frame1, frame2;
+        
+        // Determine which frames to use
+        if (i < lastFrames.size()) {
+            frame1 = lastFrames.get(i);
+        } else {
+            frame1 = lastFrames.get(lastFrames.size() - 1);
+        }
+        
+        if (i < firstFrames.size()) {
+            frame2 = firstFrames.get(i);
+        } else if (!firstFrames.isEmpty()) {
+            frame2 = firstFrames.get(firstFrames.size() - 1);
+        } else {
+            frame2 = frame1; // Fallback
+        }
+        
+        // Render straight into a recycled buffer; it is never one of the inputs, so the sink can own it
+        Mat transitionFrame = acquireOutputFrame();
+        try (FrameScope scope = FrameScope.openIf(scopedAllocation)) {
+            transition.applyTransition(frame1, frame2, progress, transitionFrame);
+        }
+        return transitionFrame;
+    }
+
+    private synchronized ForkJoinPool getRenderPool() {
+        if (renderPool == null || renderPool.getParallelism() != transitionParallelism) {
+            if (renderPool != null) {
+                renderPool.shutdown();
+            }
+            renderPool = new ForkJoinPool(transitionParallelism);
+        }
+        return renderPool;
+    }
+
+    /**
+     * Opens the frame source for a given input clip
+     */
+    interface SourceOpener {
+        FrameSource open(int clipIndex) throws Exception;
+    }
+
+    /**
+     * Opens a decoder for a given input clip
+     */
+    interface ClipOpener {
+        ClipFrameReader open(int clipIndex) throws Exception;
+    }
+
+    /**
+     * Open a decoder for an input clip, seeking straight to its in point when one is set
+     */
+    ClipFrameReader openClip(List<String> inputVideos, int clipIndex) throws Exception {
+        ClipFrameReader reader = new ClipFrameReader(inputVideos.get(clipIndex), outputWidth, outputHeight,
+                                                     clipRanges.get(clipIndex), scalingQuality, yuv420Mode);
+        reader.setFramePool(framePool);
+        return reader;
+    }
+
+    /**
+     * Streaming variant of the pre-loading path. Each clip is decoded once, front to back;
+     * only the trailing transitionFrames/2 frames of the current clip (ring buffer) and the
+     * leading transitionFrames/2 frames of the next clip are held in memory at any time.
+     * Produces exactly the same frame sequence as the pre-loading path.
+     * With a prefetcher, the next clip is opened and its head decoded while the current clip is written.
+     */
+    void streamVideosWithTransitions(List<String> inputVideos, List<TransitionType> transitions,
+                                     SourceOpener opener, ClipPrefetcher prefetcher, FrameSink sink) throws Exception {
+        int windowSize = transitionFrames / 2;
+
+        System.out.println("Streaming videos with a " + windowSize + "-frame transition window...");
+
+        FrameSource reader = opener.open(0);
+        List<Mat> head = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < inputVideos.size(); i++) {
+                boolean isLast = i == inputVideos.size() - 1;
+                System.out.println("Streaming video " + (i + 1) + "/" + inputVideos.size() + ": " + inputVideos.get(i));
+                if (prefetcher != null && !isLast) {
+                    prefetcher.prefetch(i + 1);
+                }
+
+                // Ring buffer holding the trailing frames reserved for the outgoing transition
+                ArrayDeque<Mat> tail = new ArrayDeque<>(windowSize + 1);
+                int clipFrames = 0;
+                int framesWritten = 0;
+
+                // Frames already decoded for the previous transition come first
+                for (Mat frame : head) {
+                    framesWritten += pushToTail(tail, frame, windowSize, sink);
+                    clipFrames++;
+                }
+                head = new ArrayList<>();
+
+                Mat frame;
+                while ((frame = reader.nextFrame()) != null) {
+                    framesWritten += pushToTail(tail, frame, windowSize, sink);
+                    clipFrames++;
+                }
+                reader.close();
+                reader = null;
+
+                if (clipFrames == 0) {
+                    System.out.println("Warning: No frames found in video " + inputVideos.get(i));
+                    // Add a blank frame to prevent errors
+                    framesWritten += pushToTail(tail, createBlankOutputFrame(),
+                                                windowSize, sink);
+                    clipFrames++;
+                }
+
+                if (isLast) {
+                    // No outgoing transition, flush the remaining window as regular frames
+                    while (!tail.isEmpty()) {
+                        sink.write(tail.pollFirst());
+                    }
+                    System.out.println("Streamed " + clipFrames + " frames from video " + (i + 1));
+                    break;
+                }
+
+                // Short clips still contribute their first frame before the transition
+                if (framesWritten == 0 && !tail.isEmpty()) {
+                    sink.write(tail.peekFirst().clone());
+                }
+
+                // Decode the head of the next clip for the incoming side of the transition
+                if (prefetcher != null) {
+                    ClipPrefetcher.PrefetchedClip next = prefetcher.take(i + 1);
+                    reader = next.source;
+                    head = next.head;
+                } else {
+                    reader = opener.open(i + 1);
+                    head = reader.readFrames(windowSize);
+                }
+                if (head.isEmpty() && windowSize > 0) {
+                    System.out.println("Warning: No frames found in video " + inputVideos.get(i + 1));
+                    head.add(createBlankOutputFrame());
+                }
+
+                System.out.println("Streamed " + clipFrames + " frames from video " + (i + 1));
+                System.out.println("Applying transition: " + transitions.get(i) + " between video " +
+                                  (i + 1) + " and video " + (i + 2));
+
+                writeTransitionFrames(new ArrayList<>(tail), head, transitions.get(i), sink);
+
+                for (Mat used : tail) {
+                    sink.recycle(used);
+                }
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Add a frame to the tail ring buffer, writing whichever frame falls out of it
+     * @return Number of frames written (0 or 1)
+     */
+    int pushToTail(ArrayDeque<Mat> tail, Mat frame, int windowSize, FrameSink sink) throws Exception {
+        tail.addLast(frame);
+        if (tail.size() <= windowSize) {
+            return 0;
+        }
+        sink.write(tail.pollFirst());
+        return 1;
+    }
+
     // The applyTransition method has been replaced by applyTransitionBetweenVideos
     // which works with pre-loaded frames for better performance and smoother transitions
 
+    /**
+     * Create the transition for the engine's pixel layout
+     */
+    private BaseTransition createRenderTransition(TransitionType type) {
+        if (!yuv420Mode) {
+            return createTransition(type, outputWidth, outputHeight);
+        }
+        if (Yuv420Frames.isPlaneSeparable(type)) {
+            return Yuv420Transition.planar(createTransition(type, outputWidth, outputHeight),
+                                           createTransition(type, outputWidth / 2, outputHeight / 2),
+                                           outputWidth, outputHeight);
+        }
+        return Yuv420Transition.converting(createTransition(type, outputWidth, outputHeight),
+                                           outputWidth, outputHeight);
+    }
+
     /**
      * Create appropriate transition object based on type
      */
-    private BaseTransition createTransition(TransitionType type) {
+    private BaseTransition createTransition(TransitionType type, int outputWidth, int outputHeight) {
         switch (type) {
             case FADE_IN:
             case FADE_OUT:
@@ -204,6 +563,9 @@ public class VideoTransitionEngine {
             case WIPE_UP:
             case WIPE_DOWN:
             case WIPE_CIRCLE:
+            case WIPE_DIAGONAL:
+            case WIPE_SPIRAL:
+            case WIPE_MOSAIC:
             case IRIS_IN:
             case IRIS_OUT:
                 return new WipeTransition(outputWidth, outputHeight, transitionFrames, type);
@@ -216,9 +578,23 @@ public class VideoTransitionEngine {
             case ROTATE_COUNTERCLOCKWISE:
                 return new RotateTransition(outputWidth, outputHeight, transitionFrames, type);
 
+            case CUBE_LEFT:
+            case CUBE_RIGHT:
+                return new CubeTransition(outputWidth, outputHeight, transitionFrames, type);
+
+            case PAGE_CURL:
+                return new PageCurlTransition(outputWidth, outputHeight, transitionFrames);
+
             case BLUR_TRANSITION:
             case PIXELATE_TRANSITION:
-                return new EffectTransition(outputWidth, outputHeight, transitionFrames, type);
+                EffectTransition effectTransition = new EffectTransition(outputWidth, outputHeight, transitionFrames, type);
+                effectTransition.setConfig(defaultConfig);
+                effectTransition.setFastBlur(effectBlur);
+                return effectTransition;
+
+            case LUMA_MATTE:
+                MatteLibrary.Matte matte = matteLibrary != null && lumaMatte != null ? matteLibrary.get(lumaMatte) : null;
+                return new LumaMatteTransition(outputWidth, outputHeight, transitionFrames, matte, matteSoftness);
 
             // AI-Powered Object-Aware Transitions
             case OBJECT_REVEAL:
@@ -243,6 +619,22 @@ public class VideoTransitionEngine {
     }
 
     // Getters and setters
+    public int getOutputWidth() {
+        return outputWidth;
+    }
+
+    public int getOutputHeight() {
+        return outputHeight;
+    }
+
+    public double getFrameRate() {
+        return frameRate;
+    }
+
+    public int getTransitionFrames() {
+        return transitionFrames;
+    }
+
     public void setOutputDimensions(int width, int height) {
         this.outputWidth = width;
         this.outputHeight = height;
@@ -256,6 +648,294 @@ public class VideoTransitionEngine {
         this.transitionFrames = frames;
     }
 
+    public void setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+    }
+
+    public boolean isStreamingMode() {
+        return streamingMode;
+    }
+
+    /**
+     * Restrict an input clip to the given in/out points. The decoder seeks to the nearest
+     * keyframe before the in point instead of decoding from the start.
+     */
+    public void setClipRange(int clipIndex, ClipRange range) {
+        if (range == null) {
+            clipRanges.remove(clipIndex);
+        } else {
+            clipRanges.put(clipIndex, range);
+        }
+    }
+
+    public ClipRange getClipRange(int clipIndex) {
+        return clipRanges.get(clipIndex);
+    }
+
+    public void setPrefetchEnabled(boolean prefetchEnabled) {
+        this.prefetchEnabled = prefetchEnabled;
+    }
+
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    /**
+     * Render each transition frame inside a FrameScope so its native temporaries are freed
+     * as soon as the frame is done (enabled by default)
+     */
+    public void setScopedAllocation(boolean scopedAllocation) {
+        this.scopedAllocation = scopedAllocation;
+    }
+
+    public boolean isScopedAllocation() {
+        return scopedAllocation;
+    }
+
+    /**
+     * Transitions of the last streaming run whose next clip was already decoded
+     */
+    public int getPrefetchHits() {
+        return prefetchHits;
+    }
+
+    /**
+     * Transitions of the last streaming run that had to wait for the next clip
+     */
+    public int getPrefetchStalls() {
+        return prefetchStalls;
+    }
+
+    /**
+     * Enforce the native memory budget recommended for the given device. Idle pooled frames
+     * are capped at the device's maxCachedFrames.
+     */
+    public void setMemoryBudget(DeviceOptimizer device) {
+        DeviceOptimizer.MemoryRecommendations recommendations = device.getMemoryRecommendations();
+        framePool.setMaxPooledBytes(recommendations.maxCachedFrames * getFrameBytes());
+        memoryGovernor = MemoryGovernor.forDevice(device, framePool);
+        System.out.println("Native memory budget: " + recommendations.maxMemoryMB + " MB, " +
+                           recommendations.maxCachedFrames + " cached frames");
+    }
+
+    public void setMemoryGovernor(MemoryGovernor memoryGovernor) {
+        this.memoryGovernor = memoryGovernor;
+    }
+
+    public MemoryGovernor getMemoryGovernor() {
+        return memoryGovernor;
+    }
+
+    /**
+     * Memory report of the last job, including its high-water mark (null without a governor)
+     */
+    public String getLastMemoryReport() {
+        return lastMemoryReport;
+    }
+
+    /**
+     * Trace frame buffer allocations and report unreleased ones after each transition and job
+     * (null to disable). Use a sampling tracer for canary renders.
+     */
+    public void setLeakTracer(MatLeakTracer leakTracer) {
+        this.leakTracer = leakTracer;
+        framePool.setTracer(leakTracer);
+    }
+
+    public MatLeakTracer getLeakTracer() {
+        return leakTracer;
+    }
+
+    /**
+     * Leak report of the last job (null without a tracer)
+     */
+    public String getLastLeakReport() {
+        return lastLeakReport;
+    }
+
+    /**
+     * Size of one decoded output frame in bytes
+     */
+    long getFrameBytes() {
+        return yuv420Mode ? Yuv420Frames.frameBytes(outputWidth, outputHeight) : (long) outputWidth * outputHeight * 3;
+    }
+
+    /**
+     * Borrow an output frame buffer in the engine's pixel layout
+     */
+    Mat acquireOutputFrame() {
+        return yuv420Mode ? Yuv420Frames.acquire(framePool, outputWidth, outputHeight)
+                          : framePool.acquire(outputHeight, outputWidth, CV_8UC3);
+    }
+
+    /**
+     * Black output frame in the engine's pixel layout
+     */
+    Mat createBlankOutputFrame() {
+        return yuv420Mode ? Yuv420Frames.createBlank(outputWidth, outputHeight)
+                          : VideoProcessor.createBlankFrame(outputWidth, outputHeight);
+    }
+
+    /**
+     * Record an output frame in the engine's pixel layout
+     */
+    void recordFrame(FFmpegFrameRecorder recorder, Mat frame) throws Exception {
+        if (yuv420Mode) {
+            Yuv420Frames.record(recorder, frame);
+        } else {
+            recorder.record(FrameBridge.toFrame(frame));
+        }
+    }
+
+    /**
+     * Keep frames in planar YUV 4:2:0 from decode through encode. Fades, dissolves, slides, pushes and
+     * wipes render per plane; other transitions convert to BGR only for their transition window.
+     * Requires an even output size.
+     */
+    public void setYuv420Mode(boolean yuv420Mode) {
+        if (yuv420Mode && (outputWidth % 2 != 0 || outputHeight % 2 != 0)) {
+            System.out.println("Warning: YUV 4:2:0 needs an even output size, keeping BGR for "
+                               + outputWidth + "x" + outputHeight);
+            return;
+        }
+        this.yuv420Mode = yuv420Mode;
+    }
+
+    public boolean isYuv420Mode() {
+        return yuv420Mode;
+    }
+
+    /**
+     * Pool of frame buffers shared by the decoders, transitions and sinks of this engine
+     */
+    public FramePool getFramePool() {
+        return framePool;
+    }
+
+    /**
+     * Choose the scaling algorithm applied while decoding, e.g. AREA for large downscales
+     */
+    public void setScalingQuality(ScalingQuality scalingQuality) {
+        this.scalingQuality = scalingQuality;
+    }
+
+    public ScalingQuality getScalingQuality() {
+        return scalingQuality;
+    }
+
+    /**
+     * Library of mattes that LUMA_MATTE transitions can follow
+     */
+    public void setMatteLibrary(MatteLibrary matteLibrary) {
+        this.matteLibrary = matteLibrary;
+    }
+
+    public MatteLibrary getMatteLibrary() {
+        return matteLibrary;
+    }
+
+    /**
+     * Choose the matte LUMA_MATTE transitions follow (null = luma of the outgoing frame)
+     */
+    public void setLumaMatte(String name) {
+        if (name != null && (matteLibrary == null || matteLibrary.get(name) == null)) {
+            System.out.println("Warning: matte '" + name + "' not found, using a luma fade");
+            name = null;
+        }
+        this.lumaMatte = name;
+    }
+
+    /**
+     * Width of the soft matte edge as a fraction of the grey range (0 = hard edge)
+     */
+    public void setMatteSoftness(double matteSoftness) {
+        this.matteSoftness = Math.max(0.0, Math.min(1.0, matteSoftness));
+    }
+
+    /**
+     * Memory kept for cached remap tables of rotate, cube and page-curl transitions.
+     * The cache is shared by every engine in the process. A transition whose tables for every step do
+     * not fit (6 bytes per pixel per step; cube needs two per step) renders without the cache.
+     */
+    public void setRemapCacheBytes(long maxBytes) {
+        RemapCache.getShared().setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Blur used by the blur transition: PYRAMID (default) or BOX keep the cost nearly flat as
+     * TransitionConfig.blurAmount grows; GAUSSIAN is the full-resolution reference
+     * @param quality 0-1, higher keeps more of a pyramid blur at full resolution
+     */
+    public void setEffectBlur(FastBlur.Mode mode, double quality) {
+        this.effectBlur = new FastBlur(mode, quality);
+    }
+
+    /**
+     * Limit how many input clips are loaded concurrently (1 = one after another)
+     */
+    public void setIngestConcurrency(int concurrency) {
+        this.ingestConcurrency = Math.max(1, concurrency);
+    }
+
+    public int getIngestConcurrency() {
+        return ingestConcurrency;
+    }
+
+    public void setSmartRenderMode(boolean smartRenderMode) {
+        this.smartRenderMode = smartRenderMode;
+    }
+
+    public boolean isSmartRenderMode() {
+        return smartRenderMode;
+    }
+
+    public void setSegmentParallelMode(boolean segmentParallelMode) {
+        this.segmentParallelMode = segmentParallelMode;
+    }
+
+    public boolean isSegmentParallelMode() {
+        return segmentParallelMode;
+    }
+
+    /**
+     * Set the number of segments encoded concurrently in segment-parallel mode
+     */
+    public void setSegmentParallelism(int threads) {
+        this.segmentParallelism = Math.max(1, threads);
+    }
+
+    public int getSegmentParallelism() {
+        return segmentParallelism;
+    }
+
+    public void setPipelineMode(boolean pipelineMode) {
+        this.pipelineMode = pipelineMode;
+    }
+
+    public boolean isPipelineMode() {
+        return pipelineMode;
+    }
+
+    public void setPipelineQueueDepths(int decodeQueueDepth, int encodeQueueDepth) {
+        this.decodeQueueDepth = decodeQueueDepth;
+        this.encodeQueueDepth = encodeQueueDepth;
+    }
+
+    public String getLastPipelineReport() {
+        return lastPipelineReport;
+    }
+
+    /**
+     * Set how many transition frames are rendered concurrently. Output order is unaffected.
+     */
+    public void setTransitionParallelism(int parallelism) {
+        this.transitionParallelism = Math.max(1, parallelism);
+    }
+
+    public int getTransitionParallelism() {
+        return transitionParallelism;
+    }
+
     // AI-powered features configuration
     public void enableAIFeatures(String modelPath) {
         this.aiModelPath = modelPath;
@@ -0,0 +1,140 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import static org.bytedeco.opencv.global.opencv_core.*;
+
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Precomputed reveal-order field for shaped wipes.
+ *
+ * Each pixel of a CV_16U field holds the point in the transition (0 to FIELD_MAX) at which the incoming
+ * frame shows through there: its normalised distance from the centre, its position along the diagonal,
+ * its place along a spiral arm, or the rank of its tile in a shuffled mosaic. A field is built once per
+ * pattern and resolution and shared by every transition that uses it. Each frame then needs one
+ * threshold pass (field to 8-bit mask, with a narrow soft edge) and one select pass (a fused mask blend).
+ */
+public final class WipeField {
+    public enum Pattern { RADIAL, DIAGONAL, SPIRAL, MOSAIC }
+
+    static final int FIELD_MAX = 65535;
+
+    // Width of the soft edge as a fraction of the field, about two pixels for a 4K circle
+    private static final double EDGE_WIDTH = FIELD_MAX / 1024.0;
+
+    private static final int SPIRAL_TURNS = 2;
+    private static final int MOSAIC_ROWS = 18;
+    private static final long MOSAIC_SEED = 7;
+
+    private static final Map<String, WipeField> CACHE = new HashMap<>();
+
+    private final Pattern pattern;
+    private final int width;
+    private final int height;
+    private final Mat field;
+
+    private WipeField(Pattern pattern, int width, int height) {
+        this.pattern = pattern;
+        this.width = width;
+        this.height = height;
+        this.field = FrameScope.escape(new Mat(height, width, CV_16UC1));
+        ((ShortBuffer) field.createBuffer()).put(compute(pattern, width, height));
+    }
+
+    /**
+     * Shared field for the pattern at the given resolution, built on first use
+     */
+    public static WipeField get(Pattern pattern, int width, int height) {
+        String key = pattern + ":" + width + "x" + height;
+        synchronized (CACHE) {
+            WipeField cached = CACHE.get(key);
+            if (cached == null) {
+                cached = new WipeField(pattern, width, height);
+                CACHE.put(key, cached);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * result = reveal where the field has been reached at this progress, base elsewhere
+     * @param progress 0 shows only base, 1 only reveal
+     */
+    public void composite(Mat base, Mat reveal, double progress, Mat result, FramePool framePool) {
+        double threshold = Math.max(0.0, Math.min(1.0, progress)) * (FIELD_MAX + EDGE_WIDTH);
+        Mat mask = framePool.acquire(height, width, CV_8UC1);
+        try {
+            // mask = saturate(255 * (threshold - field) / edge)
+            field.convertTo(mask, CV_8U, -255.0 / EDGE_WIDTH, 255.0 * threshold / EDGE_WIDTH);
+            PixelKernels.blendWithMask(reveal, base, mask, result);
+        } finally {
+            framePool.recycle(mask);
+        }
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    private static short[] compute(Pattern pattern, int width, int height) {
+        short[] values = new short[width * height];
+        double centerX = (width - 1) / 2.0;
+        double centerY = (height - 1) / 2.0;
+        double maxRadius = Math.max(1.0, Math.sqrt(centerX * centerX + centerY * centerY));
+        int[] tileRanks = pattern == Pattern.MOSAIC ? shuffledRanks(mosaicColumns(width, height) * MOSAIC_ROWS) : null;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double dx = x - centerX;
+                double dy = y - centerY;
+                double value;
+                switch (pattern) {
+                    case DIAGONAL:
+                        value = (x + y) / (double) Math.max(1, width + height - 2);
+                        break;
+                    case SPIRAL:
+                        // Contours are Archimedean spirals, so the edge sweeps round while moving outwards
+                        double turn = (Math.atan2(dy, dx) + Math.PI) / (2 * Math.PI);
+                        value = (Math.min(turn, 1.0) + SPIRAL_TURNS * Math.sqrt(dx * dx + dy * dy) / maxRadius)
+                                / (SPIRAL_TURNS + 1);
+                        break;
+                    case MOSAIC:
+                        int columns = mosaicColumns(width, height);
+                        int tile = (int) ((long) y * MOSAIC_ROWS / height) * columns + (int) ((long) x * columns / width);
+                        value = tileRanks[tile] / (double) tileRanks.length;
+                        break;
+                    case RADIAL:
+                    default:
+                        value = Math.sqrt(dx * dx + dy * dy) / maxRadius;
+                        break;
+                }
+                values[y * width + x] = (short) (int) Math.round(Math.min(1.0, value) * FIELD_MAX);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Tile columns for a roughly square grid. Tiles are laid out proportionally, so a half-size chroma
+     * plane gets the same grid as its luma plane.
+     */
+    private static int mosaicColumns(int width, int height) {
+        return Math.max(1, (int) Math.round(MOSAIC_ROWS * width / (double) height));
+    }
+
+    private static int[] shuffledRanks(int count) {
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = i;
+        }
+        Random random = new Random(MOSAIC_SEED);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = swap;
+        }
+        return ranks;
+    }
+}
@@ -1,13 +1,13 @@
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Rect;
-import org.bytedeco.opencv.opencv_core.Point;
-import static org.bytedeco.opencv.global.opencv_core.*;
 
 /**
- * Wipe transition effects (wipe in different directions and shapes)
+ * Wipe transition effects (wipe in different directions and shapes).
+ * Shaped wipes composite through a precomputed WipeField instead of drawing a mask per frame.
  */
 public class WipeTransition extends BaseTransition {
     private TransitionType type;
+    private WipeField field = null;
     
     public WipeTransition(int width, int height, int transitionFrames, TransitionType type) {
         super(width, height, transitionFrames);
@@ -15,32 +15,49 @@ public class WipeTransition extends BaseTransition {
     }
     
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         switch (type) {
             case WIPE_LEFT:
-                return wipeLeft(frame1, frame2, progress);
+                wipeLeft(frame1, frame2, progress, destination);
+                break;
             case WIPE_RIGHT:
-                return wipeRight(frame1, frame2, progress);
+                wipeRight(frame1, frame2, progress, destination);
+                break;
             case WIPE_UP:
-                return wipeUp(frame1, frame2, progress);
+                wipeUp(frame1, frame2, progress, destination);
+                break;
             case WIPE_DOWN:
-                return wipeDown(frame1, frame2, progress);
+                wipeDown(frame1, frame2, progress, destination);
+                break;
             case WIPE_CIRCLE:
-                return wipeCircle(frame1, frame2, progress);
+                wipeCircle(frame1, frame2, progress, destination);
+                break;
             case IRIS_IN:
-                return irisIn(frame1, frame2, progress);
+                irisIn(frame1, frame2, progress, destination);
+                break;
             case IRIS_OUT:
-                return irisOut(frame1, frame2, progress);
+                irisOut(frame1, frame2, progress, destination);
+                break;
+            case WIPE_DIAGONAL:
+                wipeDiagonal(frame1, frame2, progress, destination);
+                break;
+            case WIPE_SPIRAL:
+                wipeSpiral(frame1, frame2, progress, destination);
+                break;
+            case WIPE_MOSAIC:
+                wipeMosaic(frame1, frame2, progress, destination);
+                break;
             default:
-                return wipeLeft(frame1, frame2, progress);
+                wipeLeft(frame1, frame2, progress, destination);
+                break;
         }
     }
     
     /**
      * Wipe left - new frame appears from left edge
      */
-    private Mat wipeLeft(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame1.clone();
+    private void wipeLeft(Mat frame1, Mat frame2, double progress, Mat result) {
+        frame1.copyTo(result);
         double easedProgress = easeInOut(progress);
         int wipeWidth = (int)(width * easedProgress);
         
@@ -48,15 +65,13 @@ public class WipeTransition extends BaseTransition {
             Rect roi = new Rect(0, 0, Math.min(wipeWidth, width), height);
             new Mat(frame2, roi).copyTo(new Mat(result, roi));
         }
-        
-        return result;
     }
     
     /**
      * Wipe right - new frame appears from right edge
      */
-    private Mat wipeRight(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame1.clone();
+    private void wipeRight(Mat frame1, Mat frame2, double progress, Mat result) {
+        frame1.copyTo(result);
         double easedProgress = easeInOut(progress);
         int wipeWidth = (int)(width * easedProgress);
         
@@ -65,15 +80,13 @@ public class WipeTransition extends BaseTransition {
             Rect roi = new Rect(startX, 0, wipeWidth, height);
             new Mat(frame2, roi).copyTo(new Mat(result, roi));
         }
-        
-        return result;
     }
     
     /**
      * Wipe up - new frame appears from top edge
      */
-    private Mat wipeUp(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame1.clone();
+    private void wipeUp(Mat frame1, Mat frame2, double progress, Mat result) {
+        frame1.copyTo(result);
         double easedProgress = easeInOut(progress);
         int wipeHeight = (int)(height * easedProgress);
         
@@ -81,15 +94,13 @@ public class WipeTransition extends BaseTransition {
             Rect roi = new Rect(0, 0, width, Math.min(wipeHeight, height));
             new Mat(frame2, roi).copyTo(new Mat(result, roi));
         }
-        
-        return result;
     }
     
     /**
      * Wipe down - new frame appears from bottom edge
      */
-    private Mat wipeDown(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame1.clone();
+    private void wipeDown(Mat frame1, Mat frame2, double progress, Mat result) {
+        frame1.copyTo(result);
         double easedProgress = easeInOut(progress);
         int wipeHeight = (int)(height * easedProgress);
         
@@ -98,68 +109,58 @@ public class WipeTransition extends BaseTransition {
             Rect roi = new Rect(0, startY, width, wipeHeight);
             new Mat(frame2, roi).copyTo(new Mat(result, roi));
         }
-        
-        return result;
     }
     
     /**
      * Circular wipe - new frame appears in expanding circle
      */
-    private Mat wipeCircle(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame1.clone();
-        double easedProgress = easeInOut(progress);
-        
-        // Calculate maximum radius (diagonal of frame)
-        int maxRadius = (int)Math.sqrt(width * width + height * height) / 2;
-        int currentRadius = (int)(maxRadius * easedProgress);
-        
-        if (currentRadius > 0) {
-            Point center = new Point(width / 2, height / 2);
-            Mat mask = VideoProcessor.createCircularMask(width, height, currentRadius, center);
-            
-            // Apply mask to frame2 and blend with frame1
-            Mat maskedFrame2 = VideoProcessor.applyMask(frame2, mask);
-            Mat invertedMask = new Mat();
-            bitwise_not(mask, invertedMask);
-            Mat maskedFrame1 = VideoProcessor.applyMask(result, invertedMask);
-            
-            add(maskedFrame1, maskedFrame2, result);
-        }
-        
-        return result;
+    private void wipeCircle(Mat frame1, Mat frame2, double progress, Mat result) {
+        field(WipeField.Pattern.RADIAL).composite(frame1, frame2, easeInOut(progress), result, framePool);
     }
     
     /**
      * Iris in - circular opening reveals new frame
      */
-    private Mat irisIn(Mat frame1, Mat frame2, double progress) {
-        return wipeCircle(frame1, frame2, progress);
+    private void irisIn(Mat frame1, Mat frame2, double progress, Mat result) {
+        wipeCircle(frame1, frame2, progress, result);
     }
     
     /**
      * Iris out - circular closing hides old frame
      */
-    private Mat irisOut(Mat frame1, Mat frame2, double progress) {
-        Mat result = frame2.clone();
-        double easedProgress = easeInOut(1.0 - progress); // Reverse progress
-        
-        // Calculate maximum radius
-        int maxRadius = (int)Math.sqrt(width * width + height * height) / 2;
-        int currentRadius = (int)(maxRadius * easedProgress);
-        
-        if (currentRadius > 0) {
-            Point center = new Point(width / 2, height / 2);
-            Mat mask = VideoProcessor.createCircularMask(width, height, currentRadius, center);
-            
-            // Apply mask to frame1 and blend with frame2
-            Mat maskedFrame1 = VideoProcessor.applyMask(frame1, mask);
-            Mat invertedMask = new Mat();
-            bitwise_not(mask, invertedMask);
-            Mat maskedFrame2 = VideoProcessor.applyMask(result, invertedMask);
-            
-            add(maskedFrame1, maskedFrame2, result);
+    private void irisOut(Mat frame1, Mat frame2, double progress, Mat result) {
+        // Inside the shrinking circle stays frame1, outside comes from frame2
+        field(WipeField.Pattern.RADIAL).composite(frame2, frame1, easeInOut(1.0 - progress), result, framePool);
+    }
+    
+    /**
+     * Diagonal wipe - new frame sweeps in from the top-left corner
+     */
+    private void wipeDiagonal(Mat frame1, Mat frame2, double progress, Mat result) {
+        field(WipeField.Pattern.DIAGONAL).composite(frame1, frame2, easeInOut(progress), result, framePool);
+    }
+    
+    /**
+     * Spiral wipe - new frame appears along a spiral arm winding out from the center
+     */
+    private void wipeSpiral(Mat frame1, Mat frame2, double progress, Mat result) {
+        field(WipeField.Pattern.SPIRAL).composite(frame1, frame2, progress, result, framePool);
+    }
+    
+    /**
+     * Mosaic wipe - new frame appears tile by tile in a shuffled order
+     */
+    private void wipeMosaic(Mat frame1, Mat frame2, double progress, Mat result) {
+        field(WipeField.Pattern.MOSAIC).composite(frame1, frame2, progress, result, framePool);
+    }
+    
+    /**
+     * Reveal-order field for this transition's frame size, shared across transitions
+     */
+    private WipeField field(WipeField.Pattern pattern) {
+        if (field == null || field.getPattern() != pattern) {
+            field = WipeField.get(pattern, width, height);
         }
-        
-        return result;
+        return field;
     }
 }
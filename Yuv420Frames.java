@@ -0,0 +1,181 @@
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_YUV420P;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers for frames kept in planar YUV 4:2:0 (I420) instead of BGR.
+ *
+ * An I420 frame of width x height is stored as one continuous single-channel Mat with height * 3 / 2
+ * rows: the full-size Y plane followed by the quarter-size U and V planes. This is the layout the
+ * decoder produces for AV_PIX_FMT_YUV420P and the one the H.264 encoder consumes, so frames can go
+ * from decoder to encoder without colour conversion and with half the bytes of BGR.
+ * Sample values are limited range, as decoded: black is Y=16, U=V=128.
+ */
+public final class Yuv420Frames {
+    public static final double LUMA_BLACK = 16;
+    public static final double CHROMA_NEUTRAL = 128;
+
+    private Yuv420Frames() {}
+
+    /**
+     * Whether the transition can be rendered on each plane independently: fades and dissolves blend
+     * linearly, and slides, pushes and wipes only move or select pixels, so applying them per plane
+     * at the plane's size gives the same picture as in BGR
+     */
+    public static boolean isPlaneSeparable(TransitionType type) {
+        switch (type) {
+            case FADE_IN:
+            case FADE_OUT:
+            case CROSSFADE:
+            case DISSOLVE:
+            case SLIDE_LEFT:
+            case SLIDE_RIGHT:
+            case SLIDE_UP:
+            case SLIDE_DOWN:
+            case PUSH_LEFT:
+            case PUSH_RIGHT:
+            case WIPE_LEFT:
+            case WIPE_RIGHT:
+            case WIPE_UP:
+            case WIPE_DOWN:
+            case WIPE_CIRCLE:
+            case WIPE_DIAGONAL:
+            case WIPE_SPIRAL:
+            case WIPE_MOSAIC:
+            case IRIS_IN:
+            case IRIS_OUT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Rows of the stacked I420 Mat for a frame of the given height
+     */
+    public static int rows(int height) {
+        return height * 3 / 2;
+    }
+
+    public static long frameBytes(int width, int height) {
+        return (long) width * height * 3 / 2;
+    }
+
+    /**
+     * Borrow an I420 frame buffer from the pool; contents are undefined
+     */
+    public static Mat acquire(FramePool pool, int width, int height) {
+        return pool.acquire(rows(height), width, CV_8UC1);
+    }
+
+    /**
+     * Create a black I420 frame
+     */
+    public static Mat createBlank(int width, int height) {
+        Mat frame = new Mat(rows(height), width, CV_8UC1);
+        fillBlack(frame, width, height);
+        return frame;
+    }
+
+    private static void fillBlack(Mat frame, int width, int height) {
+        new Mat(frame, new Rect(0, 0, width, height)).put(new Scalar(LUMA_BLACK));
+        new Mat(frame, new Rect(0, height, width, height / 2)).put(new Scalar(CHROMA_NEUTRAL));
+    }
+
+    /**
+     * Views of the Y, U and V planes of an I420 frame. No data is copied.
+     */
+    public static Mat[] planes(Mat frame, int width, int height) {
+        BytePointer data = frame.data();
+        long lumaBytes = (long) width * height;
+        long chromaBytes = lumaBytes / 4;
+        return new Mat[] {
+            new Mat(height, width, CV_8UC1, new BytePointer(data).position(0)),
+            new Mat(height / 2, width / 2, CV_8UC1, new BytePointer(data).position(lumaBytes)),
+            new Mat(height / 2, width / 2, CV_8UC1, new BytePointer(data).position(lumaBytes + chromaBytes))
+        };
+    }
+
+    /**
+     * Wrap a decoded AV_PIX_FMT_YUV420P frame as an I420 Mat without copying.
+     * Valid until the grabber decodes the next frame.
+     */
+    public static Mat wrap(Frame frame) {
+        int width = frame.imageWidth;
+        int height = frame.imageHeight;
+        ByteBuffer buffer = (ByteBuffer) frame.image[0];
+        if (frame.imageStride != width || buffer.capacity() < frameBytes(width, height)) {
+            throw new IllegalStateException("Decoded frame is not tightly packed I420 (stride "
+                                            + frame.imageStride + ", width " + width + ")");
+        }
+        return new Mat(rows(height), width, CV_8UC1, new BytePointer(buffer));
+    }
+
+    /**
+     * Copy an I420 frame into destination (a new Mat when null) at the given size.
+     * Frames already at that size are copied as-is; others are scaled through BGR.
+     */
+    public static Mat copyToSize(Mat frame, int frameWidth, int frameHeight, Mat destination,
+                                 int width, int height) {
+        if (destination == null) {
+            destination = new Mat();
+        }
+        if (frameWidth == width && frameHeight == height) {
+            frame.copyTo(destination);
+            return destination;
+        }
+        Mat bgr = new Mat();
+        Mat scaled = new Mat();
+        try {
+            cvtColor(frame, bgr, COLOR_YUV2BGR_I420);
+            resize(bgr, scaled, new Size(width, height));
+            cvtColor(scaled, destination, COLOR_BGR2YUV_I420);
+        } finally {
+            bgr.release();
+            scaled.release();
+        }
+        return destination;
+    }
+
+    /**
+     * Convert an I420 frame to BGR
+     */
+    public static void toBgr(Mat frame, Mat destination) {
+        cvtColor(frame, destination, COLOR_YUV2BGR_I420);
+    }
+
+    /**
+     * Convert a BGR frame to I420
+     */
+    public static void fromBgr(Mat frame, Mat destination) {
+        cvtColor(frame, destination, COLOR_BGR2YUV_I420);
+    }
+
+    /**
+     * Record an I420 frame. The recorder receives the planes in its own pixel format,
+     * so it encodes them without a swscale pass.
+     */
+    public static void record(FFmpegFrameRecorder recorder, Mat frame) throws Exception {
+        int width = frame.cols();
+        int height = frame.rows() * 2 / 3;
+        Frame wrapped = new Frame();
+        wrapped.imageWidth = width;
+        wrapped.imageHeight = height;
+        wrapped.imageDepth = Frame.DEPTH_UBYTE;
+        wrapped.imageChannels = 1;
+        wrapped.imageStride = width;
+        wrapped.image = new Buffer[] { frame.createBuffer() };
+        wrapped.opaque = frame;
+        recorder.record(wrapped, AV_PIX_FMT_YUV420P);
+    }
+}
@@ -0,0 +1,89 @@
+import org.bytedeco.opencv.opencv_core.Mat;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+
+/**
+ * Renders a transition on I420 frames.
+ *
+ * Plane-separable transitions run once on the luma plane and once on each chroma plane, using a
+ * second instance of the transition sized to the chroma planes, so no colour conversion happens at all.
+ * Other transitions convert the two input frames to BGR, render as usual and convert the result back,
+ * which confines the colour conversions to the transition window.
+ */
+public class Yuv420Transition extends BaseTransition {
+    private final BaseTransition luma;
+    private final BaseTransition chroma;
+    private final BaseTransition bgr;
+
+    private Yuv420Transition(int width, int height, int transitionFrames,
+                             BaseTransition luma, BaseTransition chroma, BaseTransition bgr) {
+        super(width, height, transitionFrames);
+        this.luma = luma;
+        this.chroma = chroma;
+        this.bgr = bgr;
+    }
+
+    /**
+     * Render per plane
+     * @param luma Transition sized to the full frame
+     * @param chroma Same transition sized to half the frame in each dimension
+     */
+    public static Yuv420Transition planar(BaseTransition luma, BaseTransition chroma, int width, int height) {
+        luma.setPlaneFormat(Yuv420Frames.LUMA_BLACK);
+        chroma.setPlaneFormat(Yuv420Frames.CHROMA_NEUTRAL);
+        return new Yuv420Transition(width, height, luma.getTransitionFrames(), luma, chroma, null);
+    }
+
+    /**
+     * Render in BGR, converting the inputs and the result
+     * @param bgr Transition sized to the full frame
+     */
+    public static Yuv420Transition converting(BaseTransition bgr, int width, int height) {
+        return new Yuv420Transition(width, height, bgr.getTransitionFrames(), null, null, bgr);
+    }
+
+    public boolean isPlanar() {
+        return bgr == null;
+    }
+
+    @Override
+    public void setFramePool(FramePool framePool) {
+        super.setFramePool(framePool);
+        for (BaseTransition inner : new BaseTransition[] { luma, chroma, bgr }) {
+            if (inner != null) {
+                inner.setFramePool(framePool);
+            }
+        }
+    }
+
+    @Override
+    protected Mat acquireFrame() {
+        return Yuv420Frames.acquire(framePool, width, height);
+    }
+
+    @Override
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
+        destination.create(Yuv420Frames.rows(height), width, frame1.type());
+
+        if (bgr == null) {
+            Mat[] planes1 = Yuv420Frames.planes(frame1, width, height);
+            Mat[] planes2 = Yuv420Frames.planes(frame2, width, height);
+            Mat[] output = Yuv420Frames.planes(destination, width, height);
+            luma.applyTransition(planes1[0], planes2[0], progress, output[0]);
+            chroma.applyTransition(planes1[1], planes2[1], progress, output[1]);
+            chroma.applyTransition(planes1[2], planes2[2], progress, output[2]);
+            return;
+        }
+
+        Mat bgr1 = framePool.acquire(height, width, CV_8UC3);
+        Mat bgr2 = framePool.acquire(height, width, CV_8UC3);
+        Mat rendered = framePool.acquire(height, width, CV_8UC3);
+        try {
+            Yuv420Frames.toBgr(frame1, bgr1);
+            Yuv420Frames.toBgr(frame2, bgr2);
+            bgr.applyTransition(bgr1, bgr2, progress, rendered);
+            Yuv420Frames.fromBgr(rendered, destination);
+        } finally {
+            recycle(bgr1, bgr2, rendered);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 import org.bytedeco.opencv.opencv_core.Mat;
 
 /**
- * Zoom transition effects (zoom in, zoom out)
+ * Zoom transition effects (zoom in, zoom out), each frame a single affine warp of the visible region
  */
 public class ZoomTransition extends BaseTransition {
     private TransitionType type;
@@ -12,44 +12,51 @@ public class ZoomTransition extends BaseTransition {
     }
     
     @Override
-    public Mat applyTransition(Mat frame1, Mat frame2, double progress) {
+    public void applyTransition(Mat frame1, Mat frame2, double progress, Mat destination) {
         switch (type) {
             case ZOOM_IN:
-                return zoomIn(frame1, frame2, progress);
+                zoomIn(frame1, frame2, progress, destination);
+                break;
             case ZOOM_OUT:
-                return zoomOut(frame1, frame2, progress);
+                zoomOut(frame1, frame2, progress, destination);
+                break;
             default:
-                return zoomIn(frame1, frame2, progress);
+                zoomIn(frame1, frame2, progress, destination);
+                break;
         }
     }
     
     /**
      * Zoom in transition - old frame zooms in while new frame fades in
      */
-    private Mat zoomIn(Mat frame1, Mat frame2, double progress) {
+    private void zoomIn(Mat frame1, Mat frame2, double progress, Mat result) {
         double easedProgress = easeInOut(progress);
         
         // Scale factor: starts at 1.0, goes to 2.0
         double scaleFactor = 1.0 + easedProgress;
-        Mat scaledFrame1 = VideoProcessor.scaleFrame(frame1, scaleFactor);
+        Mat scaledFrame1 = acquireFrame();
+        VideoProcessor.scaleFrame(frame1, scaleFactor, scaledFrame1);
         
         // Fade between scaled frame1 and frame2
         double alpha = easedProgress;
-        return VideoProcessor.blendFrames(scaledFrame1, frame2, alpha);
+        VideoProcessor.blendFrames(scaledFrame1, frame2, alpha, result);
+        recycle(scaledFrame1);
     }
     
     /**
      * Zoom out transition - new frame starts zoomed in and zooms out
      */
-    private Mat zoomOut(Mat frame1, Mat frame2, double progress) {
+    private void zoomOut(Mat frame1, Mat frame2, double progress, Mat result) {
         double easedProgress = easeInOut(progress);
         
         // Scale factor: starts at 2.0, goes to 1.0
         double scaleFactor = 2.0 - easedProgress;
-        Mat scaledFrame2 = VideoProcessor.scaleFrame(frame2, scaleFactor);
+        Mat scaledFrame2 = acquireFrame();
+        VideoProcessor.scaleFrame(frame2, scaleFactor, scaledFrame2);
         
         // Fade between frame1 and scaled frame2
         double alpha = easedProgress;
-        return VideoProcessor.blendFrames(frame1, scaledFrame2, alpha);
+        VideoProcessor.blendFrames(frame1, scaledFrame2, alpha, result);
+        recycle(scaledFrame2);
     }
 }
@@ -12,7 +12,7 @@ if not exist "javacv-platform-1.5.8.jar" (
 )
 
 echo Compiling Java files...
-javac -cp "javacv-platform-1.5.8.jar" *.java
+javac --add-modules jdk.incubator.vector -cp "javacv-platform-1.5.8.jar" *.java
 
 if %ERRORLEVEL% neq 0 (
     echo Compilation failed!
@@ -44,7 +44,7 @@ echo Input Video 2: %~2
 echo Output Directory: %~3
 echo.
 
-java -cp ".;javacv-platform-1.5.8.jar" TransitionDemo "%~1" "%~2" "%~3"
+java --add-modules jdk.incubator.vector -cp ".;javacv-platform-1.5.8.jar" TransitionDemo "%~1" "%~2" "%~3"
 
 if %ERRORLEVEL% neq 0 (
     echo Demo execution failed!